@@ -0,0 +1,31 @@
+package pratikwayase.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import pratikwayase.analytics.BookingAnalytics;
+import pratikwayase.analytics.OccupancyReport;
+
+import java.util.concurrent.TimeUnit;
+
+// A year of nightly figures over every pre-booked stay (roomCount * bookingsPerRoom rows)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalyticsBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Store {
+        BookingAnalytics analytics;
+
+        @Setup(Level.Trial)
+        public void setUp(HotelState state) {
+            analytics = BookingAnalytics.attach(state.hotel);
+        }
+    }
+
+    @Benchmark
+    public OccupancyReport yearReport(HotelState state, Store store) {
+        return store.analytics.report(state.firstDay, state.firstDay + 365);
+    }
+}
@@ -0,0 +1,72 @@
+package pratikwayase.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import pratikwayase.model.Room;
+import pratikwayase.model.RoomBooking;
+
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-room availability checks through the {@code Date} edge and through epoch days. Run with
+ * {@code -Djmh.profilers=gc}: {@code gc.alloc.rate.norm} of the epoch-day variant should be zero.
+ * The {@code readMostly} group checks availability on three threads while a fourth books and
+ * cancels, so readers see writers in the shared lock stripes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailabilityBenchmark {
+
+    @State(Scope.Thread)
+    public static class Probe {
+        Room room;
+        long[] days;
+        Date[] dates;
+
+        @Setup(Level.Trial)
+        public void setUp(HotelState state) {
+            room = state.hotel.findRoomByNumber(state.roomNumbers[0]);
+            days = new long[Math.max(1, state.bookedNights())];
+            dates = new Date[days.length];
+            for (int i = 0; i < days.length; i++) {
+                days[i] = state.firstDay + i;
+                dates[i] = HotelState.date(days[i]);
+            }
+        }
+
+        int next() {
+            return ThreadLocalRandom.current().nextInt(days.length);
+        }
+    }
+
+    @Benchmark
+    public boolean isRoomAvailableByDate(Probe probe) {
+        return probe.room.isRoomAvailable(probe.dates[probe.next()], 2);
+    }
+
+    @Benchmark
+    public boolean isRoomAvailableByEpochDay(Probe probe) {
+        return probe.room.isRoomAvailable(probe.days[probe.next()], 2);
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(3)
+    public boolean availabilityUnderWrites(Probe probe) {
+        return probe.room.isRoomAvailable(probe.days[probe.next()], 2);
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(1)
+    public RoomBooking bookingUnderReads(HotelState state, BookingBenchmark.Cursor cursor) {
+        RoomBooking booking = state.hotel.createBooking(cursor.nextReservation(), state.roomNumbers[cursor.threadIndex % state.roomCount],
+                HotelState.GUEST_ID, cursor.freeGapDay, 1);
+        state.hotel.cancelBooking(booking);
+        return booking;
+    }
+}
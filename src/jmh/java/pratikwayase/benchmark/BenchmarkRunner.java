@@ -0,0 +1,40 @@
+package pratikwayase.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Runs every benchmark once per thread count in {@code -Djmh.threads} (comma separated) and
+ * writes one JSON result file per thread count to {@code -Djmh.result.dir}, so runs from two
+ * releases can be diffed. {@code -Djmh.profilers} adds JMH profilers by name, e.g. {@code gc} for
+ * allocation rates. An optional first argument narrows the benchmarks by regex.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : BenchmarkRunner.class.getPackageName() + ".*Benchmark.*";
+        String resultDir = System.getProperty("jmh.result.dir", "target/jmh");
+        String profilers = System.getProperty("jmh.profilers", "");
+        new File(resultDir).mkdirs();
+
+        for (String value : System.getProperty("jmh.threads", "1").split(",")) {
+            int threads = Integer.parseInt(value.trim());
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(resultDir + "/jmh-result-t" + threads + ".json");
+            for (String profiler : profilers.split(",")) {
+                if (!profiler.isBlank()) {
+                    options.addProfiler(profiler.trim());
+                }
+            }
+            new Runner(options.build()).run();
+        }
+    }
+}
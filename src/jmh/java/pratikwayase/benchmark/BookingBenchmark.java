@@ -0,0 +1,70 @@
+package pratikwayase.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import pratikwayase.model.RoomBooking;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingBenchmark {
+
+    /**
+     * Each thread books its own rooms, walking forward through nights after the pre-booked range,
+     * so every attempt succeeds and threads only contend on shared hotel structures.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int threadIndex;
+        int threads;
+        int roomIndex;
+        long nextDay;
+        long sequence;
+        long freeGapDay;
+
+        @Setup(Level.Trial)
+        public void setUp(HotelState state, BenchmarkParams params) {
+            threadIndex = state.threadSequence.getAndIncrement();
+            threads = params.getThreads();
+            roomIndex = threadIndex;
+            nextDay = state.firstDay + state.bookedNights();
+            // odd nights inside the pre-booked range are free, each thread uses its own one
+            freeGapDay = state.firstDay + 1 + 2L * (threadIndex % Math.max(1, state.bookingsPerRoom));
+        }
+
+        // Rooms threadIndex, threadIndex + threads, ... belong to this thread; a new night starts after each pass
+        String nextRoom(HotelState state) {
+            String roomNumber = state.roomNumbers[roomIndex];
+            roomIndex += threads;
+            if (roomIndex >= state.roomCount) {
+                roomIndex = threadIndex;
+                nextDay++;
+            }
+            return roomNumber;
+        }
+
+        String nextReservation() {
+            return "B_" + threadIndex + "_" + sequence++;
+        }
+    }
+
+    @Benchmark
+    public RoomBooking createBooking(HotelState state, Cursor cursor) {
+        long day = cursor.nextDay;
+        String roomNumber = cursor.nextRoom(state);
+        return state.hotel.createBooking(cursor.nextReservation(), roomNumber, HotelState.GUEST_ID, day, 1);
+    }
+
+    // Steady-state book/cancel cycle on a free night in the busy range; cancel cost is this minus createBooking
+    @Benchmark
+    public RoomBooking createAndCancelBooking(HotelState state, Cursor cursor) {
+        RoomBooking booking = state.hotel.createBooking(cursor.nextReservation(), state.roomNumbers[cursor.threadIndex % state.roomCount],
+                HotelState.GUEST_ID, cursor.freeGapDay, 1);
+        state.hotel.cancelBooking(booking);
+        return booking;
+    }
+}
@@ -0,0 +1,128 @@
+package pratikwayase.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import pratikwayase.codec.BinaryCodec;
+import pratikwayase.enums.BookingStatus;
+import pratikwayase.enums.RoomStyle;
+import pratikwayase.logging.EventLog;
+import pratikwayase.model.*;
+import pratikwayase.util.EpochDays;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes the same stream of bookings with the binary codec, with DataOutputStream (the field
+ * layout the snapshot files use) and as toString() text. The bytesPerBooking counter gives the
+ * size comparison next to the timings.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CodecBenchmark {
+    private static final int BOOKINGS = 256;
+
+    private RoomBooking[] bookings;
+    private Hotel hotel;
+    private ByteBuffer direct;
+    private ByteBuffer encoded;
+    private ByteArrayOutputStream bytes;
+
+    // Reported as-is at the end of each iteration; every invocation encodes the same bookings
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Size {
+        public long bytesPerBooking;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        EventLog.install(EventLog.noop());
+        hotel = new Hotel("Codec Benchmark");
+        Room[] rooms = new Room[16];
+        for (int i = 0; i < rooms.length; i++) {
+            rooms[i] = new Room("R" + (100 + i), RoomStyle.DELUXE, 200.0, false);
+            hotel.addRoom(rooms[i]);
+        }
+        Guest[] guests = new Guest[8];
+        for (int i = 0; i < guests.length; i++) {
+            guests[i] = new Guest("G" + i, "Guest " + i, "guest" + i + "@example.com", "000");
+            hotel.addUser(guests[i]);
+        }
+        long today = EpochDays.today();
+        bookings = new RoomBooking[BOOKINGS];
+        for (int i = 0; i < BOOKINGS; i++) {
+            bookings[i] = RoomBooking.restore("RES_" + i, rooms[i % rooms.length], guests[i % guests.length],
+                    today + i, 1 + i % 5, BookingStatus.CONFIRMED);
+        }
+        direct = ByteBuffer.allocateDirect(BOOKINGS * 128);
+        bytes = new ByteArrayOutputStream(BOOKINGS * 128);
+
+        BinaryCodec.Encoder encoder = BinaryCodec.newEncoder();
+        for (RoomBooking booking : bookings) {
+            encoder.encode(booking, direct);
+        }
+        encoded = direct.flip().asReadOnlyBuffer();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BOOKINGS)
+    public int binaryCodecEncode(Size size) {
+        BinaryCodec.Encoder encoder = BinaryCodec.newEncoder();
+        direct.clear();
+        for (RoomBooking booking : bookings) {
+            encoder.encode(booking, direct);
+        }
+        size.bytesPerBooking = direct.position() / BOOKINGS;
+        return direct.position();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BOOKINGS)
+    public RoomBooking binaryCodecDecode() {
+        BinaryCodec.Decoder decoder = BinaryCodec.newDecoder();
+        BinaryCodec.Resolver resolver = BinaryCodec.Resolver.of(hotel);
+        ByteBuffer in = encoded.duplicate();
+        RoomBooking last = null;
+        while (in.hasRemaining()) {
+            last = decoder.decodeBooking(in, resolver);
+        }
+        return last;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BOOKINGS)
+    public int dataOutputStreamEncode(Size size) throws IOException {
+        bytes.reset();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (RoomBooking booking : bookings) {
+            out.writeUTF(booking.getReservationNumber());
+            out.writeUTF(booking.getRoom().getRoomNumber());
+            out.writeUTF(booking.getGuest().getId());
+            out.writeLong(booking.getStartEpochDay());
+            out.writeInt(booking.getDurationInDays());
+            out.writeByte(booking.getStatus().ordinal());
+            out.writeDouble(booking.getTotalPrice());
+        }
+        size.bytesPerBooking = bytes.size() / BOOKINGS;
+        return bytes.size();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BOOKINGS)
+    public int toStringEncode(Size size) {
+        int total = 0;
+        for (RoomBooking booking : bookings) {
+            total += booking.toString().getBytes(StandardCharsets.UTF_8).length;
+        }
+        size.bytesPerBooking = total / BOOKINGS;
+        return total;
+    }
+}
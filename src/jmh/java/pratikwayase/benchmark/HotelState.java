@@ -0,0 +1,76 @@
+package pratikwayase.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import pratikwayase.enums.RoomStyle;
+import pratikwayase.factory.DeluxeRoomFactory;
+import pratikwayase.factory.FamilySuiteRoomFactory;
+import pratikwayase.factory.RoomFactory;
+import pratikwayase.logging.EventLog;
+import pratikwayase.model.Guest;
+import pratikwayase.model.Hotel;
+import pratikwayase.model.Room;
+import pratikwayase.model.RoomBooking;
+import pratikwayase.util.EpochDays;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A hotel shared by all benchmark threads. Every room is pre-booked on alternate nights starting
+ * tomorrow, so the first {@code 2 * bookingsPerRoom} nights are half full.
+ */
+@State(Scope.Benchmark)
+public class HotelState {
+    static final String GUEST_ID = "BENCH_GUEST";
+
+    @Param({"100", "1000"})
+    public int roomCount;
+
+    @Param({"10", "400"})
+    public int bookingsPerRoom;
+
+    public Hotel hotel;
+    public String[] roomNumbers;
+    public String[] reservationNumbers;
+    public long firstDay;
+    // Hands each benchmark thread its own slice of rooms so writers never collide
+    public final AtomicInteger threadSequence = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        EventLog.install(EventLog.noop()); // measure the booking code, not the console
+        hotel = new Hotel("Benchmark Hotel");
+        hotel.addUser(new Guest(GUEST_ID, "Bench", "bench@example.com", "000"));
+        RoomFactory deluxe = new DeluxeRoomFactory();
+        RoomFactory suite = new FamilySuiteRoomFactory();
+
+        roomNumbers = new String[roomCount];
+        for (int i = 0; i < roomCount; i++) {
+            roomNumbers[i] = "R" + i;
+            Room room = i % 2 == 0
+                    ? deluxe.createRoom(RoomStyle.DELUXE, roomNumbers[i], 200.0, false)
+                    : suite.createRoom(RoomStyle.FAMILY_SUITE, roomNumbers[i], 450.0, false);
+            hotel.addRoom(room);
+        }
+
+        firstDay = EpochDays.today() + 1;
+        reservationNumbers = new String[roomCount * bookingsPerRoom];
+        int n = 0;
+        for (int i = 0; i < roomCount; i++) {
+            for (int b = 0; b < bookingsPerRoom; b++) {
+                String reservationNumber = "PRE_" + i + "_" + b;
+                RoomBooking booking = hotel.createBooking(reservationNumber, roomNumbers[i], GUEST_ID, firstDay + 2L * b, 1);
+                hotel.confirmBooking(booking);
+                reservationNumbers[n++] = reservationNumber;
+            }
+        }
+    }
+
+    public int bookedNights() {
+        return 2 * bookingsPerRoom;
+    }
+
+    public static Date date(long epochDay) {
+        return EpochDays.toDate(epochDay);
+    }
+}
@@ -0,0 +1,63 @@
+package pratikwayase.benchmark;
+
+import pratikwayase.enums.RoomStyle;
+import pratikwayase.logging.EventLog;
+import pratikwayase.model.Hotel;
+import pratikwayase.persistence.RoomInventoryLoader;
+
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Loads a synthetic inventory of {@code args[1]} rooms (default 100000) into a hotel of
+ * {@code args[2]} shards (default 16), in batches through the {@link RoomInventoryLoader} when
+ * {@code args[0]} is {@code bulk} or room by room otherwise, and prints the load time and the
+ * retained heap per room after a full GC. Not a JMH benchmark: run each mode in a fresh JVM with
+ * a fixed heap, e.g. {@code java -Xms2g -Xmx2g -cp target/classes:target/test-classes
+ * pratikwayase.benchmark.InventoryFootprint bulk 100000 16}.
+ * <p>
+ * The per-room figure includes each room's empty {@code Room.bookings} list, which is created with
+ * the room rather than on its first booking. Its wrapper and list headers are about
+ * {@value #EMPTY_BOOKING_LIST_BYTES} B, printed separately so the rest of the room's cost stays visible.
+ */
+public class InventoryFootprint {
+    // Collections.synchronizedList wrapper plus an ArrayList still on the shared empty array, compressed oops
+    static final int EMPTY_BOOKING_LIST_BYTES = 48;
+
+    public static void main(String[] args) throws Exception {
+        boolean bulk = args.length == 0 || args[0].equals("bulk");
+        int rooms = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        int shards = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        EventLog.install(EventLog.noop());
+        StringReader csv = new StringReader(inventory(rooms));
+
+        long heapBefore = usedHeap();
+        long started = System.nanoTime();
+        Hotel hotel = new Hotel("Footprint", shards);
+        new RoomInventoryLoader(hotel, bulk ? RoomInventoryLoader.DEFAULT_BATCH_SIZE : 1).loadCsv(csv);
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        long perRoom = (usedHeap() - heapBefore) / rooms;
+        System.out.printf("%s: %d rooms in %d shards loaded in %d ms, %d B/room (of which ~%d B empty booking list)%n",
+                bulk ? "bulk" : "one by one", hotel.getRoomCount(), shards, millis, perRoom, EMPTY_BOOKING_LIST_BYTES);
+    }
+
+    // A quarter family suites, a tenth smoking, prices spread over 50 steps
+    private static String inventory(int rooms) {
+        StringBuilder csv = new StringBuilder(rooms * 32);
+        for (int i = 0; i < rooms; i++) {
+            boolean suite = i % 4 == 3;
+            csv.append('R').append(i).append(',')
+                    .append(suite ? RoomStyle.FAMILY_SUITE : RoomStyle.DELUXE).append(',')
+                    .append((suite ? 300 : 150) + i % 50).append(',')
+                    .append(!suite && i % 10 == 0).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
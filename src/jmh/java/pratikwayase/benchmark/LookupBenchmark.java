@@ -0,0 +1,22 @@
+package pratikwayase.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import pratikwayase.model.RoomBooking;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookupBenchmark {
+
+    @Benchmark
+    public RoomBooking findBookingByReservationNumber(HotelState state) {
+        String[] reservations = state.reservationNumbers;
+        return state.hotel.findBookingByReservationNumber(
+                reservations[ThreadLocalRandom.current().nextInt(reservations.length)]);
+    }
+}
@@ -0,0 +1,39 @@
+package pratikwayase.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import pratikwayase.metrics.HotelMetrics;
+import pratikwayase.metrics.LatencyHistogram;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost instrumentation adds to a hot-path call: a bare histogram record, a timed section
+ * with both clock reads, and a sampled section that reads the clock one call in
+ * {@link HotelMetrics#SAMPLE_RATE}. Run with several threads to see contention on the buckets.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Benchmark
+    public void recordHistogram() {
+        histogram.record(1_234);
+    }
+
+    @Benchmark
+    public void timedSection() {
+        long started = HotelMetrics.start();
+        HotelMetrics.record(HotelMetrics.Operation.CREATE_BOOKING, started);
+    }
+
+    @Benchmark
+    public void sampledSection() {
+        long started = HotelMetrics.startSampled();
+        HotelMetrics.record(HotelMetrics.Operation.IS_ROOM_AVAILABLE, started);
+    }
+}
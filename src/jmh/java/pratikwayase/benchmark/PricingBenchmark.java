@@ -0,0 +1,45 @@
+package pratikwayase.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import pratikwayase.enums.RoomStyle;
+import pratikwayase.index.RoomQuery;
+import pratikwayase.model.Room;
+import pratikwayase.pricing.PricingEngine;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Quoting a 20-room search page for a three-night stay against a rated, surging calendar, which
+ * should stay in the low microseconds whatever the hotel size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Pricing {
+        PricingEngine engine;
+        List<Room> page;
+        long day;
+
+        @Setup(Level.Trial)
+        public void setUp(HotelState state) {
+            engine = PricingEngine.attach(state.hotel, state.firstDay, PricingEngine.DEFAULT_HORIZON_DAYS);
+            for (RoomStyle style : RoomStyle.values()) {
+                engine.setRate(style, state.firstDay, state.firstDay + PricingEngine.DEFAULT_HORIZON_DAYS, 180.0);
+            }
+            engine.setSurgeTiers(new double[]{0.5, 0.8}, new double[]{1.1, 1.3});
+            day = state.firstDay + state.bookedNights(); // past the pre-booked nights, so the page is full
+            page = state.hotel.searchRooms(new RoomQuery(day, 3).page(0, 20));
+        }
+    }
+
+    @Benchmark
+    public double[] quotePage(Pricing pricing) {
+        return pricing.engine.quote(pricing.page, pricing.day, 3);
+    }
+}
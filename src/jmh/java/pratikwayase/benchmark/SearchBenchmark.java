@@ -0,0 +1,71 @@
+package pratikwayase.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import pratikwayase.enums.RoomStyle;
+import pratikwayase.index.RoomQuery;
+import pratikwayase.model.Room;
+import pratikwayase.strategy.RoomAvailabilitySearchStrategy;
+import pratikwayase.strategy.RoomStyleSearchStrategy;
+import pratikwayase.strategy.SearchStrategy;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+    // Subclasses of the built-in strategies are not cached, so these measure the calendar search itself;
+    // the few distinct days and unchanging bookings here would otherwise make nearly every call a cache hit
+    private static final SearchStrategy STYLE_SEARCH = new RoomStyleSearchStrategy() { };
+    private static final SearchStrategy AVAILABILITY_SEARCH = new RoomAvailabilitySearchStrategy() { };
+    private static final SearchStrategy CACHED_STYLE_SEARCH = new RoomStyleSearchStrategy();
+    private static final SearchStrategy CACHED_AVAILABILITY_SEARCH = new RoomAvailabilitySearchStrategy();
+
+    @State(Scope.Thread)
+    public static class Query {
+        long[] days;
+
+        @Setup(Level.Trial)
+        public void setUp(HotelState state) {
+            days = new long[Math.max(1, state.bookedNights())];
+            for (int i = 0; i < days.length; i++) {
+                days[i] = state.firstDay + i;
+            }
+        }
+
+        long next() {
+            return days[ThreadLocalRandom.current().nextInt(days.length)];
+        }
+    }
+
+    @Benchmark
+    public List<Room> searchByStyle(HotelState state, Query query) {
+        return state.hotel.searchRooms(STYLE_SEARCH, RoomStyle.DELUXE, query.next(), 3);
+    }
+
+    @Benchmark
+    public List<Room> searchByAvailability(HotelState state, Query query) {
+        return state.hotel.searchRooms(AVAILABILITY_SEARCH, null, query.next(), 3);
+    }
+
+    // Cost of a search result cache hit: a lookup and a copy of the cached list
+    @Benchmark
+    public List<Room> searchByStyleCached(HotelState state, Query query) {
+        return state.hotel.searchRooms(CACHED_STYLE_SEARCH, RoomStyle.DELUXE, query.next(), 3);
+    }
+
+    @Benchmark
+    public List<Room> searchByAvailabilityCached(HotelState state, Query query) {
+        return state.hotel.searchRooms(CACHED_AVAILABILITY_SEARCH, null, query.next(), 3);
+    }
+
+    @Benchmark
+    public List<Room> searchCheapestNonSmoking(HotelState state, Query query) {
+        return state.hotel.searchRooms(new RoomQuery(query.next(), 3)
+                .smoking(false).sortBy(RoomQuery.SortOrder.PRICE_ASCENDING).page(0, 10));
+    }
+}
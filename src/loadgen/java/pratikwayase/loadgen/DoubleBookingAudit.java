@@ -0,0 +1,83 @@
+package pratikwayase.loadgen;
+
+import pratikwayase.model.Hotel;
+import pratikwayase.model.Room;
+import pratikwayase.model.RoomBooking;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Checks a quiesced hotel for the invariants concurrent booking must keep: no two stays holding
+ * the same room overlap, every held stay is visible to the room's availability check, and the
+ * hotel's reservation map and the rooms agree on which stays exist.
+ */
+final class DoubleBookingAudit {
+    private static final int MAX_EXAMPLES = 10;
+
+    private int heldStays;
+    private int doubleBookings;
+    private int indexMismatches;
+    private final List<String> examples = new ArrayList<>();
+
+    static DoubleBookingAudit run(Hotel hotel) {
+        DoubleBookingAudit audit = new DoubleBookingAudit();
+        for (Room room : hotel.getRooms()) {
+            audit.checkRoom(room);
+        }
+        for (RoomBooking booking : hotel.bookings) {
+            if (booking.getStatus().holdsRoom() && !booking.getRoom().bookings.contains(booking)) {
+                audit.mismatch(booking.getReservationNumber() + " is in the hotel but not in room " + booking.getRoom().getRoomNumber());
+            }
+        }
+        return audit;
+    }
+
+    private void checkRoom(Room room) {
+        List<RoomBooking> held = new ArrayList<>();
+        synchronized (room.bookings) {
+            for (RoomBooking booking : room.bookings) {
+                if (booking.getStatus().holdsRoom()) {
+                    held.add(booking);
+                }
+            }
+        }
+        held.sort(Comparator.comparingLong(RoomBooking::getStartEpochDay));
+        heldStays += held.size();
+
+        RoomBooking latest = null;
+        for (RoomBooking booking : held) {
+            if (latest != null && booking.getStartEpochDay() < latest.getEndEpochDay()) {
+                doubleBookings++;
+                example("Room " + room.getRoomNumber() + ": " + latest.getReservationNumber() + " overlaps " + booking.getReservationNumber());
+            }
+            if (latest == null || booking.getEndEpochDay() > latest.getEndEpochDay()) {
+                latest = booking;
+            }
+            if (!room.isBooked(booking.getStartEpochDay(), booking.getDurationInDays())) {
+                mismatch(booking.getReservationNumber() + " holds room " + room.getRoomNumber() + " but the room reports it free");
+            }
+        }
+    }
+
+    private void mismatch(String description) {
+        indexMismatches++;
+        example(description);
+    }
+
+    private void example(String description) {
+        if (examples.size() < MAX_EXAMPLES) {
+            examples.add(description);
+        }
+    }
+
+    boolean passed() {
+        return doubleBookings == 0 && indexMismatches == 0;
+    }
+
+    int getHeldStays() { return heldStays; }
+    int getDoubleBookings() { return doubleBookings; }
+    int getIndexMismatches() { return indexMismatches; }
+    List<String> getExamples() { return examples; }
+}
@@ -0,0 +1,197 @@
+package pratikwayase.loadgen;
+
+import pratikwayase.enums.BookingStatus;
+import pratikwayase.enums.RoomStyle;
+import pratikwayase.exceptions.BookingStateException;
+import pratikwayase.exceptions.RoomNotAvailableException;
+import pratikwayase.factory.DeluxeRoomFactory;
+import pratikwayase.factory.FamilySuiteRoomFactory;
+import pratikwayase.index.RoomQuery;
+import pratikwayase.logging.EventLog;
+import pratikwayase.model.*;
+import pratikwayase.strategy.RoomAvailabilitySearchStrategy;
+import pratikwayase.strategy.SearchStrategy;
+import pratikwayase.util.EpochDays;
+
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a hotel with booking traffic at a fixed request rate and reports throughput, latency
+ * percentiles and an audit for double bookings. The generator is open-loop: request i is due
+ * at {@code start + i / rate} whatever happened to earlier requests, each runs on its own virtual
+ * thread, and its latency counts from when it was due, so a stalled hotel shows up as latency
+ * instead of quietly lowering the offered load.
+ * <p>
+ * Popular rooms and near dates are drawn from Zipf distributions, so a few rooms and the next
+ * days take most of the traffic, which is where contention happens. The request parameters come
+ * from one seeded random, so runs with the same profile send the same requests. The process exits
+ * with status 1 if the audit finds a violation or any request fails unexpectedly.
+ * <p>
+ * Run with {@code mvn -Ploadgen test-compile exec:exec -Dloadgen.rps=5000}; see
+ * {@link LoadProfile} for the other properties.
+ */
+public class LoadGenerator {
+    private static final RoomStyle[] SEARCH_STYLES = {null, RoomStyle.DELUXE, RoomStyle.FAMILY_SUITE};
+
+    private final LoadProfile profile;
+    private final Hotel hotel = new Hotel("Load Test Hotel");
+    private final Receptionist receptionist = new Receptionist("LOAD_DESK", "Front Desk", "desk@example.com", "000");
+    private final SearchStrategy strategy = new RoomAvailabilitySearchStrategy();
+    private final String[] roomsByPopularity;
+    private final ZipfDistribution rooms;
+    private final ZipfDistribution days;
+    // Bookings waiting for their next step; polling hands each one to a single request
+    private final Queue<RoomBooking> confirmed = new ConcurrentLinkedQueue<>();
+    private final Queue<RoomBooking> checkedIn = new ConcurrentLinkedQueue<>();
+    private final AtomicLong reservationSequence = new AtomicLong();
+    private final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+    private final LoadReport report;
+
+    public LoadGenerator(LoadProfile profile) {
+        this.profile = profile;
+        this.report = new LoadReport(profile);
+        this.rooms = new ZipfDistribution(profile.getRooms(), profile.getRoomSkew());
+        this.days = new ZipfDistribution(profile.getHorizonDays(), profile.getDateSkew());
+
+        DeluxeRoomFactory deluxe = new DeluxeRoomFactory();
+        FamilySuiteRoomFactory suites = new FamilySuiteRoomFactory();
+        for (int i = 0; i < profile.getRooms(); i++) {
+            String number = "L" + i;
+            hotel.addRoom(i % 4 == 3
+                    ? suites.createRoom(RoomStyle.FAMILY_SUITE, number, 300.0 + (i % 7) * 20, i % 10 == 0)
+                    : deluxe.createRoom(RoomStyle.DELUXE, number, 150.0 + (i % 5) * 10, i % 10 == 0));
+        }
+        for (int i = 0; i < profile.getGuests(); i++) {
+            hotel.addUser(new Guest("LG" + i, "Guest " + i, "guest" + i + "@example.com", "000"));
+        }
+        hotel.addUser(receptionist);
+
+        // Popularity rank -> room, shuffled so the hot rooms are spread over the hotel's shards
+        roomsByPopularity = new String[profile.getRooms()];
+        for (int i = 0; i < roomsByPopularity.length; i++) {
+            roomsByPopularity[i] = "L" + i;
+        }
+        SplittableRandom shuffle = new SplittableRandom(profile.getSeed());
+        for (int i = roomsByPopularity.length - 1; i > 0; i--) {
+            int j = shuffle.nextInt(i + 1);
+            String swap = roomsByPopularity[i];
+            roomsByPopularity[i] = roomsByPopularity[j];
+            roomsByPopularity[j] = swap;
+        }
+    }
+
+    public static void main(String[] args) {
+        EventLog.install(EventLog.noop()); // measure the booking code, not the console
+        LoadProfile profile = LoadProfile.fromSystemProperties();
+        LoadGenerator generator = new LoadGenerator(profile);
+        LoadReport report = generator.run();
+        report.print(System.out);
+        Throwable failure = generator.firstFailure.get();
+        if (failure != null) {
+            System.err.println("First unexpected failure:");
+            failure.printStackTrace();
+        }
+        generator.hotel.getNotificationDispatcher().close();
+        System.exit(report.passed() ? 0 : 1);
+    }
+
+    LoadReport run() {
+        SplittableRandom random = new SplittableRandom(profile.getSeed() + 1);
+        long today = EpochDays.today();
+        long requests = (long) profile.getRequestsPerSecond() * profile.getSeconds();
+        long maxLag = 0;
+        long start = System.nanoTime();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < requests; i++) {
+                long due = start + i * 1_000_000_000L / profile.getRequestsPerSecond();
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                } else {
+                    maxLag = Math.max(maxLag, -wait);
+                }
+                LoadProfile.Operation operation = profile.pick(random.nextDouble());
+                String roomNumber = roomsByPopularity[rooms.sample(random.nextDouble())];
+                long day = today + days.sample(random.nextDouble());
+                int nights = 1 + random.nextInt(3);
+                String guestId = "LG" + random.nextInt(profile.getGuests());
+                RoomStyle style = SEARCH_STYLES[random.nextInt(SEARCH_STYLES.length)];
+                boolean byQuery = random.nextBoolean();
+                workers.execute(() -> execute(operation, due, roomNumber, guestId, style, day, nights, byQuery));
+            }
+        } // close waits for the requests still running
+        report.finish(System.nanoTime() - start, maxLag, DoubleBookingAudit.run(hotel));
+        return report;
+    }
+
+    private void execute(LoadProfile.Operation operation, long due, String roomNumber, String guestId,
+                         RoomStyle style, long day, int nights, boolean byQuery) {
+        LoadReport.Outcome outcome;
+        try {
+            outcome = switch (operation) {
+                case SEARCH -> search(style, day, nights, byQuery);
+                case BOOK -> book(roomNumber, guestId, day, nights);
+                case CANCEL -> cancel();
+                case CHECK_IN -> checkIn();
+                case CHECK_OUT -> checkOut();
+            };
+        } catch (RoomNotAvailableException | BookingStateException e) { // the room or the booking was taken by another request
+            outcome = LoadReport.Outcome.REFUSED;
+        } catch (RuntimeException e) {
+            firstFailure.compareAndSet(null, e);
+            outcome = LoadReport.Outcome.FAILED;
+        }
+        report.record(operation, outcome, System.nanoTime() - due);
+    }
+
+    private LoadReport.Outcome search(RoomStyle style, long day, int nights, boolean byQuery) {
+        if (byQuery) {
+            hotel.searchRooms(new RoomQuery(day, nights).style(style).sortBy(RoomQuery.SortOrder.PRICE_ASCENDING).page(0, 10));
+        } else {
+            hotel.searchRooms(strategy, style, day, nights);
+        }
+        return LoadReport.Outcome.OK;
+    }
+
+    private LoadReport.Outcome book(String roomNumber, String guestId, long day, int nights) {
+        RoomBooking booking = hotel.createBooking("LR" + reservationSequence.incrementAndGet(), roomNumber, guestId, day, nights);
+        hotel.confirmBooking(booking);
+        confirmed.add(booking);
+        return LoadReport.Outcome.OK;
+    }
+
+    private LoadReport.Outcome cancel() {
+        RoomBooking booking = confirmed.poll();
+        if (booking == null) {
+            return LoadReport.Outcome.SKIPPED;
+        }
+        hotel.cancelBooking(booking);
+        return booking.getStatus() == BookingStatus.CANCELLED ? LoadReport.Outcome.OK : LoadReport.Outcome.REFUSED;
+    }
+
+    private LoadReport.Outcome checkIn() {
+        RoomBooking booking = confirmed.poll();
+        if (booking == null) {
+            return LoadReport.Outcome.SKIPPED;
+        }
+        receptionist.checkInGuest(booking);
+        checkedIn.add(booking);
+        return LoadReport.Outcome.OK;
+    }
+
+    private LoadReport.Outcome checkOut() {
+        RoomBooking booking = checkedIn.poll();
+        if (booking == null) {
+            return LoadReport.Outcome.SKIPPED;
+        }
+        receptionist.checkOutGuest(booking);
+        return LoadReport.Outcome.OK;
+    }
+}
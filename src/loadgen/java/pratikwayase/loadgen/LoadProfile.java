@@ -0,0 +1,107 @@
+package pratikwayase.loadgen;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * What the load generator builds and sends, read from {@code -Dloadgen.*} system properties:
+ * the hotel size, the target request rate and run length, the Zipf skew of rooms and stay
+ * dates, and the operation mix as weights, e.g. {@code search=60,book=25,cancel=5,checkin=5,checkout=5}.
+ */
+public class LoadProfile {
+    public enum Operation { SEARCH, BOOK, CANCEL, CHECK_IN, CHECK_OUT }
+
+    private final int rooms;
+    private final int guests;
+    private final int requestsPerSecond;
+    private final int seconds;
+    private final int horizonDays;
+    private final double roomSkew;
+    private final double dateSkew;
+    private final long seed;
+    private final Operation[] operations = Operation.values();
+    private final double[] cumulativeWeights = new double[operations.length];
+
+    public LoadProfile(int rooms, int guests, int requestsPerSecond, int seconds, int horizonDays,
+                       double roomSkew, double dateSkew, long seed, Map<Operation, Integer> mix) {
+        if (rooms <= 0 || guests <= 0 || requestsPerSecond <= 0 || seconds <= 0 || horizonDays <= 0) {
+            throw new IllegalArgumentException("Rooms, guests, rate, duration and horizon must be positive.");
+        }
+        this.rooms = rooms;
+        this.guests = guests;
+        this.requestsPerSecond = requestsPerSecond;
+        this.seconds = seconds;
+        this.horizonDays = horizonDays;
+        this.roomSkew = roomSkew;
+        this.dateSkew = dateSkew;
+        this.seed = seed;
+
+        double total = 0;
+        for (Operation operation : operations) {
+            int weight = mix.getOrDefault(operation, 0);
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight of " + operation + " cannot be negative.");
+            }
+            total += weight;
+            cumulativeWeights[operation.ordinal()] = total;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Operation mix is empty.");
+        }
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            cumulativeWeights[i] /= total;
+        }
+    }
+
+    public static LoadProfile fromSystemProperties() {
+        return new LoadProfile(
+                Integer.getInteger("loadgen.rooms", 1000),
+                Integer.getInteger("loadgen.guests", 500),
+                Integer.getInteger("loadgen.rps", 2000),
+                Integer.getInteger("loadgen.seconds", 30),
+                Integer.getInteger("loadgen.horizon", 90),
+                Double.parseDouble(System.getProperty("loadgen.roomSkew", "1.0")),
+                Double.parseDouble(System.getProperty("loadgen.dateSkew", "1.2")),
+                Long.getLong("loadgen.seed", 42),
+                parseMix(System.getProperty("loadgen.mix", "search=60,book=25,cancel=5,checkin=5,checkout=5")));
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Bad mix entry '" + entry + "', expected name=weight.");
+            }
+            String name = parts[0].trim().toUpperCase(Locale.ROOT).replace("CHECKIN", "CHECK_IN").replace("CHECKOUT", "CHECK_OUT");
+            weights.put(Operation.valueOf(name), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    // Maps a uniform draw in [0, 1) to an operation according to the mix
+    Operation pick(double uniform) {
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (uniform < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    public int getRooms() { return rooms; }
+    public int getGuests() { return guests; }
+    public int getRequestsPerSecond() { return requestsPerSecond; }
+    public int getSeconds() { return seconds; }
+    public int getHorizonDays() { return horizonDays; }
+    public double getRoomSkew() { return roomSkew; }
+    public double getDateSkew() { return dateSkew; }
+    public long getSeed() { return seed; }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%d rooms, %d guests, %d req/s for %d s, %d-day horizon, room skew %.2f, date skew %.2f, seed %d",
+                rooms, guests, requestsPerSecond, seconds, horizonDays, roomSkew, dateSkew, seed);
+    }
+}
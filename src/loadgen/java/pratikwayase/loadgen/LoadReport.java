@@ -0,0 +1,96 @@
+package pratikwayase.loadgen;
+
+import pratikwayase.metrics.HotelMetrics;
+import pratikwayase.metrics.LatencyHistogram;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Results of one run: per operation, how many requests succeeded, were refused by the hotel (a
+ * room already taken), were skipped (nothing to cancel or check in yet) or failed unexpectedly,
+ * with the latency measured from each request's scheduled start; plus the audit of the final state.
+ */
+final class LoadReport {
+    enum Outcome { OK, REFUSED, SKIPPED, FAILED }
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final LoadProfile profile;
+    private final LatencyHistogram[] latencies = new LatencyHistogram[LoadProfile.Operation.values().length];
+    private final LongAdder[][] outcomes = new LongAdder[LoadProfile.Operation.values().length][Outcome.values().length];
+    private long elapsedNanos;
+    private long maxSchedulingLagNanos;
+    private DoubleBookingAudit audit;
+
+    LoadReport(LoadProfile profile) {
+        this.profile = profile;
+        for (int op = 0; op < latencies.length; op++) {
+            latencies[op] = new LatencyHistogram();
+            for (int outcome = 0; outcome < outcomes[op].length; outcome++) {
+                outcomes[op][outcome] = new LongAdder();
+            }
+        }
+    }
+
+    void record(LoadProfile.Operation operation, Outcome outcome, long latencyNanos) {
+        outcomes[operation.ordinal()][outcome.ordinal()].increment();
+        if (outcome != Outcome.SKIPPED) {
+            latencies[operation.ordinal()].record(latencyNanos);
+        }
+    }
+
+    void finish(long elapsedNanos, long maxSchedulingLagNanos, DoubleBookingAudit audit) {
+        this.elapsedNanos = elapsedNanos;
+        this.maxSchedulingLagNanos = maxSchedulingLagNanos;
+        this.audit = audit;
+    }
+
+    long count(Outcome outcome) {
+        long total = 0;
+        for (LongAdder[] byOutcome : outcomes) {
+            total += byOutcome[outcome.ordinal()].sum();
+        }
+        return total;
+    }
+
+    long total() {
+        long total = 0;
+        for (Outcome outcome : Outcome.values()) {
+            total += count(outcome);
+        }
+        return total;
+    }
+
+    boolean passed() {
+        return audit.passed() && count(Outcome.FAILED) == 0;
+    }
+
+    void print(PrintStream out) {
+        double seconds = elapsedNanos / 1e9;
+        out.printf(Locale.ROOT, "Load: %s%n", profile);
+        out.printf(Locale.ROOT, "Throughput: %.1f req/s (%d requests in %.2f s, target %d req/s, max scheduling lag %.2f ms)%n",
+                total() / seconds, total(), seconds, profile.getRequestsPerSecond(), maxSchedulingLagNanos / 1e6);
+        out.printf(Locale.ROOT, "%-10s %9s %9s %9s %9s | %10s %10s %10s %10s %10s%n",
+                "operation", "ok", "refused", "skipped", "failed", "p50 us", "p90 us", "p99 us", "p99.9 us", "max us");
+        for (LoadProfile.Operation operation : LoadProfile.Operation.values()) {
+            LongAdder[] counts = outcomes[operation.ordinal()];
+            LatencyHistogram.Snapshot snapshot = latencies[operation.ordinal()].snapshot();
+            out.printf(Locale.ROOT, "%-10s %9d %9d %9d %9d |", operation.name().toLowerCase(Locale.ROOT),
+                    counts[0].sum(), counts[1].sum(), counts[2].sum(), counts[3].sum());
+            for (double quantile : QUANTILES) {
+                out.printf(Locale.ROOT, " %10.1f", snapshot.getValueAtQuantile(quantile) / 1e3);
+            }
+            out.printf(Locale.ROOT, " %10.1f%n", snapshot.getMaxNanos() / 1e3);
+        }
+        LatencyHistogram.Snapshot lockWait = HotelMetrics.getRoomLockWait();
+        out.printf(Locale.ROOT, "Room lock: %d contended acquisitions, p99 wait %.1f us, max %.1f us%n",
+                lockWait.getCount(), lockWait.getValueAtQuantile(0.99) / 1e3, lockWait.getMaxNanos() / 1e3);
+        out.printf(Locale.ROOT, "Audit: %d stays holding rooms, %d double bookings, %d index mismatches -> %s%n",
+                audit.getHeldStays(), audit.getDoubleBookings(), audit.getIndexMismatches(), passed() ? "PASS" : "FAIL");
+        for (String example : audit.getExamples()) {
+            out.println("  " + example);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package pratikwayase.loadgen;
+
+import java.util.Arrays;
+
+/**
+ * Zipf-distributed ranks over {@code 0..n-1}, rank 0 the most frequent. The cumulative
+ * distribution is tabulated once, so a sample is one binary search.
+ */
+final class ZipfDistribution {
+    private final double[] cdf;
+
+    ZipfDistribution(int n, double exponent) {
+        if (n <= 0 || exponent < 0) {
+            throw new IllegalArgumentException("Zipf needs a positive size and a non-negative exponent.");
+        }
+        cdf = new double[n];
+        double total = 0;
+        for (int rank = 0; rank < n; rank++) {
+            total += 1 / Math.pow(rank + 1, exponent);
+            cdf[rank] = total;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cdf[rank] /= total;
+        }
+    }
+
+    // Maps a uniform draw in [0, 1) to a rank
+    int sample(double uniform) {
+        int rank = Arrays.binarySearch(cdf, uniform);
+        rank = rank >= 0 ? rank : -rank - 1;
+        return Math.min(rank, cdf.length - 1);
+    }
+}
@@ -0,0 +1,201 @@
+package pratikwayase.Observer;
+
+import pratikwayase.logging.EventLog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers events to observers off the caller's thread. Events for one observer queue up in its
+ * mailbox and are delivered together through {@link Observer#updateAll}, one drain at a time, so
+ * a guest sees its events in order and a burst of bookings becomes one delivery. The number of
+ * undelivered events is bounded; what happens beyond the bound is the {@link OverflowPolicy},
+ * by default dropping and counting the event so a slow observer never stalls a booking. A delivery
+ * that throws is logged and counted, and later events for the observer are still delivered.
+ * Mailboxes are kept per observer for the dispatcher's lifetime, which is bounded by the hotel's users.
+ */
+public class NotificationDispatcher<T> implements AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 10_000;
+    public static final int DEFAULT_MAX_BATCH = 64;
+
+    public enum OverflowPolicy {
+        BLOCK,        // wait for a free slot
+        DROP,         // discard the event and count it
+        CALLER_RUNS   // deliver on the caller's thread, after the observer's queued events
+    }
+
+    private final ExecutorService executor;
+    private final Semaphore capacity;
+    private final OverflowPolicy overflowPolicy;
+    private final int maxBatch;
+    private final ConcurrentMap<Observer<T>, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    public NotificationDispatcher() {
+        this(Executors.newVirtualThreadPerTaskExecutor(), DEFAULT_CAPACITY, DEFAULT_MAX_BATCH, OverflowPolicy.DROP);
+    }
+
+    public NotificationDispatcher(ExecutorService executor, int capacity, int maxBatch, OverflowPolicy overflowPolicy) {
+        if (capacity <= 0 || maxBatch <= 0) {
+            throw new IllegalArgumentException("Capacity and batch size must be positive.");
+        }
+        this.executor = executor;
+        this.capacity = new Semaphore(capacity);
+        this.maxBatch = maxBatch;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public void dispatch(Observer<T> observer, T event) {
+        if (!admit(observer, event)) {
+            return;
+        }
+        Mailbox mailbox = mailboxes.computeIfAbsent(observer, Mailbox::new);
+        pending.incrementAndGet();
+        mailbox.events.add(event);
+        mailbox.schedule();
+    }
+
+    // Queues a group of events before scheduling the drain, so up to maxBatch of them arrive as one delivery
+    public void dispatchAll(Observer<T> observer, List<T> events) {
+        Mailbox mailbox = mailboxes.computeIfAbsent(observer, Mailbox::new);
+        for (T event : events) {
+            if (admit(observer, event)) {
+                pending.incrementAndGet();
+                mailbox.events.add(event);
+            }
+        }
+        mailbox.schedule();
+    }
+
+    // Takes a capacity slot for the event, or applies the overflow policy and returns false
+    private boolean admit(Observer<T> observer, T event) {
+        if (capacity.tryAcquire()) {
+            return true;
+        }
+        switch (overflowPolicy) {
+            case DROP:
+                dropped.incrementAndGet();
+                return false;
+            case CALLER_RUNS:
+                mailboxes.computeIfAbsent(observer, Mailbox::new).runInline(event);
+                return false;
+            default:
+                capacity.acquireUninterruptibly();
+                return true;
+        }
+    }
+
+    // Waits until every accepted event has been delivered; mainly for tests and orderly shutdown
+    public boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (pending.get() > 0) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            Thread.sleep(1);
+        }
+        return true;
+    }
+
+    public long getPendingCount() { return pending.get(); }
+    public long getDeliveredCount() { return delivered.get(); }
+    public long getDroppedCount() { return dropped.get(); }
+    public long getFailedCount() { return failed.get(); }
+    public long getBatchCount() { return batches.get(); }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private final class Mailbox implements Runnable {
+        private final Observer<T> observer;
+        private final Queue<T> events = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        Mailbox(Observer<T> observer) {
+            this.observer = observer;
+        }
+
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    run(); // dispatcher closed, deliver inline rather than lose the event
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                drain();
+            } finally {
+                unschedule();
+            }
+        }
+
+        // Waits for a running drain to finish, then delivers what is queued and the event on the calling thread
+        void runInline(T event) {
+            while (!scheduled.compareAndSet(false, true)) {
+                Thread.yield();
+            }
+            try {
+                drain();
+                deliver(List.of(event));
+            } finally {
+                unschedule();
+            }
+        }
+
+        private void drain() {
+            List<T> batch = new ArrayList<>();
+            while (true) {
+                T event;
+                while (batch.size() < maxBatch && (event = events.poll()) != null) {
+                    batch.add(event);
+                }
+                if (batch.isEmpty()) {
+                    return;
+                }
+                try {
+                    deliver(batch);
+                } finally {
+                    pending.addAndGet(-batch.size());
+                    capacity.release(batch.size());
+                }
+                batch.clear();
+            }
+        }
+
+        private void unschedule() {
+            scheduled.set(false); // even if an Error escaped, so the mailbox is never stuck scheduled
+            // An event may have arrived after the last poll but before the flag was cleared
+            if (!events.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void deliver(List<T> batch) {
+            try {
+                observer.updateAll(batch);
+                delivered.addAndGet(batch.size());
+            } catch (RuntimeException e) {
+                failed.addAndGet(batch.size());
+                EventLog.error("Notification delivery to {} failed: {}", observer, e.toString());
+            } finally {
+                batches.incrementAndGet();
+            }
+        }
+    }
+}
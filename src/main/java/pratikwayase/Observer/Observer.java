@@ -1,6 +1,15 @@
 package pratikwayase.Observer;
 
 
+import java.util.List;
+
 public interface Observer<T> {
     void update(T event);
+
+    // Called by NotificationDispatcher with everything queued for this observer since its last delivery
+    default void updateAll(List<T> events) {
+        for (T event : events) {
+            update(event);
+        }
+    }
 }
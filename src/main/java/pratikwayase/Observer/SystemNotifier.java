@@ -1,16 +1,23 @@
 package pratikwayase.Observer;
 
-import java.util.*;
-
-
-import java.util.ArrayList;
 import java.util.List;
-
-import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 
 public class SystemNotifier<T> {
-    private final List<Observer<T>> observers = new ArrayList<>();
+    // Copy-on-write: observers are registered rarely and notified on every booking, without locking
+    private final List<Observer<T>> observers = new CopyOnWriteArrayList<>();
+    private final NotificationDispatcher<T> dispatcher;
+
+    // Delivers on the notifying thread
+    public SystemNotifier() {
+        this(null);
+    }
+
+    // Hands every notification to the dispatcher instead of calling observers inline
+    public SystemNotifier(NotificationDispatcher<T> dispatcher) {
+        this.dispatcher = dispatcher;
+    }
 
     public void addObserver(Observer<T> observer) {
         observers.add(observer);
@@ -22,7 +29,11 @@ public class SystemNotifier<T> {
 
     public void notifyObservers(T event) {
         for (Observer<T> observer : observers) {
-            observer.update(event);
+            if (dispatcher != null) {
+                dispatcher.dispatch(observer, event);
+            } else {
+                observer.update(event);
+            }
         }
     }
 }
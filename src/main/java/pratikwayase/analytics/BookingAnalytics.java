@@ -0,0 +1,169 @@
+package pratikwayase.analytics;
+
+import pratikwayase.Observer.Observer;
+import pratikwayase.enums.BookingStatus;
+import pratikwayase.enums.RoomStyle;
+import pratikwayase.events.BookingStatusEvent;
+import pratikwayase.model.Hotel;
+import pratikwayase.model.Room;
+import pratikwayase.model.RoomBooking;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+/**
+ * Column store of a hotel's bookings for revenue reporting, fed by booking status events. Each
+ * booking is one row across primitive columns (start day, nights, room index, style, nightly
+ * price, status) held in fixed-size chunks that never move, so reports read a consistent prefix
+ * of rows without locking the hotel or the writers. Reports aggregate the chunks in parallel.
+ */
+public class BookingAnalytics implements Observer<BookingStatusEvent> {
+    static final int CHUNK_SIZE = 4096;
+
+    private static final BookingStatus[] STATUSES = BookingStatus.values();
+    private static final int STYLES = RoomStyle.values().length;
+
+    private final Hotel hotel;
+    // By booking identity: a freed reservation number can come back on a new stay, which gets its own row
+    private final ConcurrentMap<RoomBooking, Integer> rowsByBooking = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Integer> roomIndexes = new ConcurrentHashMap<>();
+    private final List<Chunk> chunks = new CopyOnWriteArrayList<>();
+    private volatile int rowCount; // rows below this are fully written; appends are serialized on this
+
+    private BookingAnalytics(Hotel hotel) {
+        this.hotel = hotel;
+    }
+
+    // Starts listening to the hotel and loads the bookings it already has
+    public static BookingAnalytics attach(Hotel hotel) {
+        BookingAnalytics analytics = new BookingAnalytics(hotel);
+        hotel.addBookingObserver(analytics);
+        for (RoomBooking booking : hotel.bookings) {
+            analytics.record(booking);
+        }
+        return analytics;
+    }
+
+    @Override
+    public void update(BookingStatusEvent event) {
+        record(event.getBooking());
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Nightly room-nights sold and room revenue per style for the nights in [fromEpochDay,
+     * toEpochDay). Confirmed, checked-in and checked-out stays count as sold.
+     */
+    public OccupancyReport report(long fromEpochDay, long toEpochDay) {
+        if (toEpochDay <= fromEpochDay) {
+            throw new IllegalArgumentException("Report range is empty.");
+        }
+        int days = Math.toIntExact(toEpochDay - fromEpochDay);
+        int rows = rowCount;
+        Chunk[] snapshot = chunks.toArray(new Chunk[0]);
+        int chunkCount = (rows + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+        Totals totals = IntStream.range(0, chunkCount).parallel()
+                .mapToObj(c -> snapshot[c].aggregate(Math.min(CHUNK_SIZE, rows - c * CHUNK_SIZE), fromEpochDay, toEpochDay, days))
+                .reduce(Totals::merge)
+                .orElseGet(() -> new Totals(days));
+
+        int[] roomsByStyle = new int[STYLES];
+        for (Room room : hotel.getRooms()) {
+            roomsByStyle[room.getStyle().ordinal()]++;
+        }
+        return new OccupancyReport(fromEpochDay, days, roomsByStyle, totals.nightsSold, totals.revenue);
+    }
+
+    private void record(RoomBooking booking) {
+        Integer row = rowsByBooking.get(booking);
+        if (row == null) {
+            synchronized (this) {
+                row = rowsByBooking.get(booking);
+                if (row == null) {
+                    append(booking);
+                    return;
+                }
+            }
+        }
+        chunks.get(row / CHUNK_SIZE).status[row % CHUNK_SIZE] = (byte) booking.getStatus().ordinal();
+    }
+
+    // Caller holds the monitor
+    private void append(RoomBooking booking) {
+        int row = rowCount;
+        if (row % CHUNK_SIZE == 0 && row / CHUNK_SIZE == chunks.size()) {
+            chunks.add(new Chunk());
+        }
+        Chunk chunk = chunks.get(row / CHUNK_SIZE);
+        int i = row % CHUNK_SIZE;
+        Room room = booking.getRoom();
+        chunk.startDay[i] = booking.getStartEpochDay();
+        chunk.nights[i] = booking.getDurationInDays();
+        chunk.roomIndex[i] = roomIndexes.computeIfAbsent(room.getRoomNumber(), n -> roomIndexes.size());
+        chunk.style[i] = (byte) room.getStyle().ordinal();
+        chunk.nightlyPrice[i] = booking.getTotalPrice() / booking.getDurationInDays();
+        chunk.status[i] = (byte) booking.getStatus().ordinal();
+        rowsByBooking.put(booking, row);
+        rowCount = row + 1; // publishes the row to readers
+    }
+
+    private static boolean isSold(byte status) {
+        BookingStatus s = STATUSES[status];
+        return s == BookingStatus.CONFIRMED || s == BookingStatus.CHECKED_IN || s == BookingStatus.CHECKED_OUT;
+    }
+
+    private static final class Chunk {
+        final long[] startDay = new long[CHUNK_SIZE];
+        final int[] nights = new int[CHUNK_SIZE];
+        final int[] roomIndex = new int[CHUNK_SIZE];
+        final byte[] style = new byte[CHUNK_SIZE];
+        final double[] nightlyPrice = new double[CHUNK_SIZE];
+        final byte[] status = new byte[CHUNK_SIZE];
+
+        Totals aggregate(int rows, long from, long to, int days) {
+            Totals totals = new Totals(days);
+            long[] nightsSold = totals.nightsSold;
+            double[] revenue = totals.revenue;
+            for (int i = 0; i < rows; i++) {
+                if (!isSold(status[i])) {
+                    continue;
+                }
+                int first = (int) (Math.max(startDay[i], from) - from);
+                int last = (int) (Math.min(startDay[i] + nights[i], to) - from);
+                int base = style[i] * days;
+                double price = nightlyPrice[i];
+                for (int d = first; d < last; d++) {
+                    nightsSold[base + d]++;
+                    revenue[base + d] += price;
+                }
+            }
+            return totals;
+        }
+    }
+
+    // Per style and night, flattened as style * days + night
+    private static final class Totals {
+        final long[] nightsSold;
+        final double[] revenue;
+
+        Totals(int days) {
+            nightsSold = new long[STYLES * days];
+            revenue = new double[STYLES * days];
+        }
+
+        Totals merge(Totals other) {
+            for (int i = 0; i < nightsSold.length; i++) {
+                nightsSold[i] += other.nightsSold[i];
+                revenue[i] += other.revenue[i];
+            }
+            return this;
+        }
+    }
+}
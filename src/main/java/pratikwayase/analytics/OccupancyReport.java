@@ -0,0 +1,85 @@
+package pratikwayase.analytics;
+
+import pratikwayase.enums.RoomStyle;
+
+/**
+ * Nightly occupancy, ADR (revenue per room-night sold) and RevPAR (revenue per room-night
+ * available) per room style. Passing a null style gives the whole hotel.
+ */
+public class OccupancyReport {
+    private final long firstEpochDay;
+    private final int days;
+    private final int[] roomsByStyle;
+    private final long[] nightsSold; // style * days + night
+    private final double[] revenue;
+
+    OccupancyReport(long firstEpochDay, int days, int[] roomsByStyle, long[] nightsSold, double[] revenue) {
+        this.firstEpochDay = firstEpochDay;
+        this.days = days;
+        this.roomsByStyle = roomsByStyle;
+        this.nightsSold = nightsSold;
+        this.revenue = revenue;
+    }
+
+    public long getFirstEpochDay() { return firstEpochDay; }
+    public int getDays() { return days; }
+
+    public long getNightsSold(RoomStyle style, long epochDay) {
+        int night = night(epochDay);
+        if (style != null) {
+            return nightsSold[style.ordinal() * days + night];
+        }
+        long total = 0;
+        for (int s = 0; s < roomsByStyle.length; s++) {
+            total += nightsSold[s * days + night];
+        }
+        return total;
+    }
+
+    public double getRevenue(RoomStyle style, long epochDay) {
+        int night = night(epochDay);
+        if (style != null) {
+            return revenue[style.ordinal() * days + night];
+        }
+        double total = 0;
+        for (int s = 0; s < roomsByStyle.length; s++) {
+            total += revenue[s * days + night];
+        }
+        return total;
+    }
+
+    public int getRooms(RoomStyle style) {
+        if (style != null) {
+            return roomsByStyle[style.ordinal()];
+        }
+        int total = 0;
+        for (int rooms : roomsByStyle) {
+            total += rooms;
+        }
+        return total;
+    }
+
+    // Share of rooms sold for the night, 0..1
+    public double getOccupancy(RoomStyle style, long epochDay) {
+        int rooms = getRooms(style);
+        return rooms == 0 ? 0.0 : (double) getNightsSold(style, epochDay) / rooms;
+    }
+
+    public double getAdr(RoomStyle style, long epochDay) {
+        long sold = getNightsSold(style, epochDay);
+        return sold == 0 ? 0.0 : getRevenue(style, epochDay) / sold;
+    }
+
+    public double getRevPar(RoomStyle style, long epochDay) {
+        int rooms = getRooms(style);
+        return rooms == 0 ? 0.0 : getRevenue(style, epochDay) / rooms;
+    }
+
+    private int night(long epochDay) {
+        long night = epochDay - firstEpochDay;
+        if (night < 0 || night >= days) {
+            throw new IllegalArgumentException("Day " + epochDay + " is outside the report.");
+        }
+        return (int) night;
+    }
+}
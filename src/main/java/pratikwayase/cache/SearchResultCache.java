@@ -0,0 +1,183 @@
+package pratikwayase.cache;
+
+import pratikwayase.Observer.Observer;
+import pratikwayase.enums.RoomStyle;
+import pratikwayase.events.RoomOccupancyEvent;
+import pratikwayase.events.RoomStatusEvent;
+import pratikwayase.model.Room;
+import pratikwayase.model.RoomBooking;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of search results keyed on (strategy, style, start day, nights). A booking
+ * taken or released evicts only the entries whose nights overlap it and whose style filter could
+ * include the room; a room checked in or out evicts the entries for its style. Results computed
+ * while an invalidation ran are returned but not cached, so a search racing a booking can never
+ * leave a stale entry behind.
+ */
+public class SearchResultCache implements Observer<RoomOccupancyEvent> {
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final int capacity;
+    private final LinkedHashMap<Key, List<Room>> entries;
+    private final Map<Long, Set<Key>> keysByDay = new HashMap<>(); // every night each entry covers
+    private long generation; // bumped by every invalidation, guarded by this
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public SearchResultCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public SearchResultCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<Room>> eldest) {
+                if (size() <= SearchResultCache.this.capacity) {
+                    return false;
+                }
+                unindex(eldest.getKey());
+                evictions.incrementAndGet();
+                return true;
+            }
+        };
+    }
+
+    // Returns a copy of the cached result, or runs the search and caches what it returns
+    public List<Room> search(Class<?> strategy, RoomStyle style, long startEpochDay, int nights, Supplier<List<Room>> search) {
+        Key key = new Key(strategy, style, startEpochDay, nights);
+        long observedGeneration;
+        synchronized (this) {
+            List<Room> cached = entries.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return new ArrayList<>(cached);
+            }
+            observedGeneration = generation;
+        }
+        misses.incrementAndGet();
+        List<Room> result = search.get();
+        synchronized (this) {
+            if (generation == observedGeneration && nights > 0 && !entries.containsKey(key)) {
+                entries.put(key, new ArrayList<>(result));
+                for (long day = startEpochDay; day < startEpochDay + nights; day++) {
+                    keysByDay.computeIfAbsent(day, d -> new HashSet<>()).add(key);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void update(RoomOccupancyEvent event) {
+        RoomBooking booking = event.getBooking();
+        invalidate(event.getRoom().getStyle(), booking.getStartEpochDay(), booking.getEndEpochDay());
+    }
+
+    public void onRoomStatusChanged(RoomStatusEvent event) {
+        invalidate(event.getRoom().getStyle());
+    }
+
+    // Evicts the entries for nights in [fromEpochDay, toEpochDay) that a room of this style could appear in
+    public synchronized void invalidate(RoomStyle style, long fromEpochDay, long toEpochDay) {
+        generation++;
+        List<Key> stale = new ArrayList<>();
+        for (long day = fromEpochDay; day < toEpochDay; day++) {
+            Set<Key> keys = keysByDay.get(day);
+            if (keys != null) {
+                for (Key key : keys) {
+                    if (key.matches(style)) {
+                        stale.add(key);
+                    }
+                }
+            }
+        }
+        stale.forEach(this::evict);
+    }
+
+    // Evicts every entry a room of this style could appear in, whatever its dates
+    public synchronized void invalidate(RoomStyle style) {
+        generation++;
+        List<Key> stale = new ArrayList<>();
+        for (Key key : entries.keySet()) {
+            if (key.matches(style)) {
+                stale.add(key);
+            }
+        }
+        stale.forEach(this::evict);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() { return hits.get(); }
+    public long getMissCount() { return misses.get(); }
+    public long getEvictionCount() { return evictions.get(); }
+    public long getInvalidationCount() { return invalidations.get(); }
+
+    public double getHitRate() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    private void evict(Key key) {
+        if (entries.remove(key) != null) {
+            unindex(key);
+            invalidations.incrementAndGet();
+        }
+    }
+
+    private void unindex(Key key) {
+        for (long day = key.startEpochDay; day < key.startEpochDay + key.nights; day++) {
+            Set<Key> keys = keysByDay.get(day);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                keysByDay.remove(day);
+            }
+        }
+    }
+
+    private static final class Key {
+        final Class<?> strategy;
+        final RoomStyle style;
+        final long startEpochDay;
+        final int nights;
+
+        Key(Class<?> strategy, RoomStyle style, long startEpochDay, int nights) {
+            this.strategy = strategy;
+            this.style = style;
+            this.startEpochDay = startEpochDay;
+            this.nights = nights;
+        }
+
+        // A search without a style filter can include a room of any style
+        boolean matches(RoomStyle roomStyle) {
+            return style == null || style == roomStyle;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return strategy == other.strategy && style == other.style
+                    && startEpochDay == other.startEpochDay && nights == other.nights;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(strategy, style, startEpochDay, nights);
+        }
+    }
+}
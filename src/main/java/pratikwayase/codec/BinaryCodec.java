@@ -0,0 +1,277 @@
+package pratikwayase.codec;
+
+import pratikwayase.enums.AccountStatus;
+import pratikwayase.enums.BookingStatus;
+import pratikwayase.enums.RoomStatus;
+import pratikwayase.enums.RoomStyle;
+import pratikwayase.events.BookingConfirmationEvent;
+import pratikwayase.model.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Versioned binary encoding of the booking model for persistence and shipping.
+ * <p>
+ * Every message starts with one header byte, {@code version << 4 | type}. Integers are varints,
+ * dates are epoch days and enums are ordinals. Room numbers and guest IDs go through a per-stream
+ * {@link StringDictionary}: the first occurrence is written out and numbered, later ones are a
+ * reference. Because of that dictionary, one {@link Encoder} and one {@link Decoder} belong to one
+ * stream, are used in the same message order, and are not thread-safe.
+ * <p>
+ * Both sides work directly on a caller-supplied {@link ByteBuffer}, heap or direct; strings are
+ * written as UTF-8 char by char and read through a reused scratch array.
+ */
+public final class BinaryCodec {
+    public static final int VERSION = 1;
+    public static final byte TYPE_ROOM = 1;
+    public static final byte TYPE_GUEST = 2;
+    public static final byte TYPE_BOOKING = 3;
+    public static final byte TYPE_CONFIRMATION_EVENT = 4;
+
+    static final int DEFAULT_DICTIONARY_SIZE = 1 << 16;
+
+    // Dictionary tags: 0 = literal, 1 = literal that becomes the next entry, n >= 2 = entry n - 2
+    private static final int TAG_LITERAL = 0;
+    private static final int TAG_DEFINE = 1;
+    private static final int TAG_REFERENCE_BASE = 2;
+
+    public interface Resolver {
+        Room findRoom(String roomNumber);
+
+        Guest findGuest(String guestId);
+
+        static Resolver of(Hotel hotel) {
+            return new Resolver() {
+                @Override
+                public Room findRoom(String roomNumber) {
+                    return hotel.findRoomByNumber(roomNumber);
+                }
+
+                @Override
+                public Guest findGuest(String guestId) {
+                    User user = hotel.findUserById(guestId);
+                    return user instanceof Guest ? (Guest) user : null;
+                }
+            };
+        }
+    }
+
+    private BinaryCodec() {
+    }
+
+    public static Encoder newEncoder() {
+        return new Encoder(DEFAULT_DICTIONARY_SIZE);
+    }
+
+    public static Decoder newDecoder() {
+        return new Decoder(DEFAULT_DICTIONARY_SIZE);
+    }
+
+    // Type of the next message without consuming it
+    public static byte peekType(ByteBuffer buffer) {
+        return (byte) (buffer.get(buffer.position()) & 0x0F);
+    }
+
+    public static final class Encoder {
+        private final StringDictionary dictionary;
+
+        Encoder(int dictionarySize) {
+            this.dictionary = new StringDictionary(dictionarySize);
+        }
+
+        public void encode(Room room, ByteBuffer out) {
+            writeHeader(out, TYPE_ROOM);
+            putInterned(out, room.getRoomNumber());
+            out.put((byte) room.getStyle().ordinal());
+            out.put((byte) room.getStatus().ordinal());
+            out.put((byte) (room.isSmoking() ? 1 : 0));
+            out.putDouble(room.getBookingPrice());
+        }
+
+        public void encode(Guest guest, ByteBuffer out) {
+            writeHeader(out, TYPE_GUEST);
+            putInterned(out, guest.getId());
+            putString(out, guest.getName());
+            putString(out, guest.getEmail());
+            putString(out, guest.getPhone());
+            out.put((byte) guest.getAccountStatus().ordinal());
+        }
+
+        public void encode(RoomBooking booking, ByteBuffer out) {
+            writeHeader(out, TYPE_BOOKING);
+            putString(out, booking.getReservationNumber());
+            putInterned(out, booking.getRoom().getRoomNumber());
+            putInterned(out, booking.getGuest().getId());
+            Varints.putSigned(out, booking.getStartEpochDay());
+            Varints.putUnsigned(out, booking.getDurationInDays());
+            out.put((byte) booking.getStatus().ordinal());
+            out.putDouble(booking.getTotalPrice());
+        }
+
+        public void encode(BookingConfirmationEvent event, ByteBuffer out) {
+            writeHeader(out, TYPE_CONFIRMATION_EVENT);
+            putString(out, event.getMessage());
+            putString(out, event.getReservationNumber());
+            putInterned(out, event.getRoomNumber());
+        }
+
+        public void reset() {
+            dictionary.clear();
+        }
+
+        private void putInterned(ByteBuffer out, String value) {
+            int id = dictionary.idOf(value);
+            if (id >= 0) {
+                Varints.putUnsigned(out, TAG_REFERENCE_BASE + id);
+                return;
+            }
+            Varints.putUnsigned(out, dictionary.add(value) ? TAG_DEFINE : TAG_LITERAL);
+            putString(out, value);
+        }
+    }
+
+    public static final class Decoder {
+        private final StringDictionary dictionary;
+        private byte[] scratch = new byte[64];
+
+        Decoder(int dictionarySize) {
+            this.dictionary = new StringDictionary(dictionarySize);
+        }
+
+        public Room decodeRoom(ByteBuffer in) {
+            readHeader(in, TYPE_ROOM);
+            String roomNumber = getInterned(in);
+            RoomStyle style = getEnum(in, RoomStyle.values());
+            RoomStatus status = getEnum(in, RoomStatus.values());
+            boolean smoking = in.get() != 0;
+            return Room.restore(roomNumber, style, in.getDouble(), smoking, status);
+        }
+
+        public Guest decodeGuest(ByteBuffer in) {
+            readHeader(in, TYPE_GUEST);
+            Guest guest = new Guest(getInterned(in), getString(in), getString(in), getString(in));
+            guest.setAccountStatus(getEnum(in, AccountStatus.values()));
+            return guest;
+        }
+
+        public RoomBooking decodeBooking(ByteBuffer in, Resolver resolver) {
+            readHeader(in, TYPE_BOOKING);
+            String reservationNumber = getString(in);
+            String roomNumber = getInterned(in);
+            String guestId = getInterned(in);
+            long startEpochDay = Varints.getSigned(in);
+            int durationInDays = Varints.getUnsignedInt(in);
+            BookingStatus status = getEnum(in, BookingStatus.values());
+            double totalPrice = in.getDouble(); // kept as encoded, the booking may have been priced by a pricing engine
+            Room room = resolver.findRoom(roomNumber);
+            Guest guest = resolver.findGuest(guestId);
+            if (room == null || guest == null) {
+                throw new CodecException("Booking " + reservationNumber + " refers to unknown room or guest.");
+            }
+            return RoomBooking.restore(reservationNumber, room, guest, startEpochDay, durationInDays, status, totalPrice);
+        }
+
+        public BookingConfirmationEvent decodeConfirmationEvent(ByteBuffer in) {
+            readHeader(in, TYPE_CONFIRMATION_EVENT);
+            return new BookingConfirmationEvent(getString(in), getString(in), getInterned(in));
+        }
+
+        public void reset() {
+            dictionary.clear();
+        }
+
+        private String getInterned(ByteBuffer in) {
+            int tag = Varints.getUnsignedInt(in);
+            if (tag >= TAG_REFERENCE_BASE) {
+                return dictionary.valueOf(tag - TAG_REFERENCE_BASE);
+            }
+            String value = getString(in);
+            if (tag == TAG_DEFINE) {
+                dictionary.add(value);
+            }
+            return value;
+        }
+
+        private static <E extends Enum<E>> E getEnum(ByteBuffer in, E[] values) {
+            int ordinal = in.get() & 0xFF;
+            if (ordinal >= values.length) {
+                throw new CodecException("Ordinal " + ordinal + " is out of range for "
+                        + values[0].getDeclaringClass().getSimpleName() + ".");
+            }
+            return values[ordinal];
+        }
+
+        private String getString(ByteBuffer in) {
+            int length = Varints.getUnsignedInt(in);
+            if (length > in.remaining()) {
+                throw new CodecException("String length " + length + " exceeds the remaining " + in.remaining() + " bytes.");
+            }
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            in.get(scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void writeHeader(ByteBuffer out, byte type) {
+        out.put((byte) (VERSION << 4 | type));
+    }
+
+    private static void readHeader(ByteBuffer in, byte expectedType) {
+        int header = in.get() & 0xFF;
+        int version = header >>> 4;
+        if (version != VERSION) {
+            throw new CodecException("Unsupported codec version " + version + ".");
+        }
+        if ((header & 0x0F) != expectedType) {
+            throw new CodecException("Expected message type " + expectedType + " but found " + (header & 0x0F) + ".");
+        }
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        Varints.putUnsigned(out, utf8Length(value));
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | c >> 6));
+                out.put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                out.put((byte) (0xF0 | cp >> 18));
+                out.put((byte) (0x80 | cp >> 12 & 0x3F));
+                out.put((byte) (0x80 | cp >> 6 & 0x3F));
+                out.put((byte) (0x80 | cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                out.put((byte) '?'); // unpaired surrogate, same replacement String.getBytes uses
+            } else {
+                out.put((byte) (0xE0 | c >> 12));
+                out.put((byte) (0x80 | c >> 6 & 0x3F));
+                out.put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+
+    private static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length += 1;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
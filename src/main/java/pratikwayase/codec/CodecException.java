@@ -0,0 +1,9 @@
+package pratikwayase.codec;
+
+public class CodecException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public CodecException(String message) {
+        super(message);
+    }
+}
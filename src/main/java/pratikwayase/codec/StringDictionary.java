@@ -0,0 +1,47 @@
+package pratikwayase.codec;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Strings seen earlier in a stream, numbered in first-seen order. The encoder and the decoder of
+ * one stream each keep one and grow them in lockstep, so a repeated room number or guest ID costs
+ * one or two bytes after its first appearance. Not thread-safe.
+ */
+final class StringDictionary {
+    private final int maxEntries;
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    StringDictionary(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    int idOf(String value) {
+        Integer id = ids.get(value);
+        return id == null ? -1 : id;
+    }
+
+    String valueOf(int id) {
+        if (id < 0 || id >= values.size()) {
+            throw new CodecException("Unknown dictionary entry " + id + ".");
+        }
+        return values.get(id);
+    }
+
+    boolean add(String value) {
+        if (values.size() >= maxEntries) {
+            return false;
+        }
+        ids.put(value, values.size());
+        values.add(value);
+        return true;
+    }
+
+    void clear() {
+        ids.clear();
+        values.clear();
+    }
+}
@@ -0,0 +1,47 @@
+package pratikwayase.codec;
+
+import java.nio.ByteBuffer;
+
+// LEB128 variable-length integers; signed values go through zig-zag so small negatives stay small
+final class Varints {
+
+    private Varints() {
+    }
+
+    static void putUnsigned(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static long getUnsigned(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new CodecException("Malformed varint.");
+    }
+
+    static void putSigned(ByteBuffer buffer, long value) {
+        putUnsigned(buffer, (value << 1) ^ (value >> 63));
+    }
+
+    static long getSigned(ByteBuffer buffer) {
+        long raw = getUnsigned(buffer);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    static int getUnsignedInt(ByteBuffer buffer) {
+        long value = getUnsigned(buffer);
+        if (value > Integer.MAX_VALUE) {
+            throw new CodecException("Varint out of int range: " + value);
+        }
+        return (int) value;
+    }
+}
@@ -0,0 +1,34 @@
+package pratikwayase.command;
+
+import pratikwayase.exceptions.InvalidBookingException;
+import pratikwayase.exceptions.RoomNotAvailableException;
+import pratikwayase.logging.EventLog;
+import pratikwayase.model.BookingRequest;
+import pratikwayase.model.Hotel;
+import pratikwayase.model.RoomBooking;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Block reservation: books and confirms every request, or none of them
+public class BatchBookRoomCommand implements Command {
+    private final Hotel hotel;
+    private final List<BookingRequest> requests;
+    private List<RoomBooking> createdBookings = new ArrayList<>();
+
+    public BatchBookRoomCommand(Hotel hotel, List<BookingRequest> requests) {
+        this.hotel = hotel;
+        this.requests = new ArrayList<>(requests);
+    }
+
+    @Override
+    public void execute() throws RoomNotAvailableException, InvalidBookingException {
+        EventLog.debug("Attempting to book a block of {} stays.", requests.size());
+        createdBookings = hotel.createBookings(requests);
+        hotel.confirmBookings(createdBookings);
+    }
+
+    public List<RoomBooking> getCreatedBookings() {
+        return createdBookings;
+    }
+}
@@ -1,5 +1,6 @@
 package pratikwayase.command;
 
+import pratikwayase.logging.EventLog;
 import pratikwayase.model.RoomBooking;
 import pratikwayase.enums.BookingStatus;
 
@@ -34,10 +35,15 @@ public class BookRoomCommand implements Command {
 
     @Override
     public void execute() throws RoomNotAvailableException, InvalidBookingException {
-        System.out.println("Attempting to book room for reservation: " + reservationNumber);
+        EventLog.debug("Attempting to book room for reservation: {}", reservationNumber);
         createdBooking = hotel.createBooking(reservationNumber, roomNumber, guestId, startDate, durationInDays);
         hotel.confirmBooking(createdBooking); // Confirm the booking automatically after creation
-        System.out.println("Booking for reservation " + reservationNumber + " confirmed.");
+        EventLog.debug("Booking for reservation {} confirmed.", reservationNumber);
+    }
+
+    @Override
+    public String getOrderingKey() {
+        return roomNumber;
     }
 
     public RoomBooking getCreatedBooking() {
@@ -1,5 +1,6 @@
 package pratikwayase.command;
 
+import pratikwayase.logging.EventLog;
 import pratikwayase.model.RoomBooking;
 import pratikwayase.enums.BookingStatus;
 
@@ -21,12 +22,19 @@ public class CancelBookingCommand implements Command {
 
     @Override
     public void execute() throws InvalidBookingException {
-        System.out.println("Attempting to cancel booking for reservation: " + reservationNumber);
+        EventLog.debug("Attempting to cancel booking for reservation: {}", reservationNumber);
         RoomBooking booking = hotel.findBookingByReservationNumber(reservationNumber);
         if (booking == null) {
             throw new InvalidBookingException("Booking with reservation number " + reservationNumber + " not found.");
         }
         hotel.cancelBooking(booking); 
-        System.out.println("Booking " + reservationNumber + " cancelled successfully.");
+        EventLog.debug("Booking {} cancelled successfully.", reservationNumber);
+    }
+
+    // Ordered with the other commands for the booking's room; unknown bookings fail fast and need no ordering
+    @Override
+    public String getOrderingKey() {
+        RoomBooking booking = hotel.findBookingByReservationNumber(reservationNumber);
+        return booking != null ? booking.getRoom().getRoomNumber() : null;
     }
 }
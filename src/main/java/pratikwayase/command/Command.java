@@ -2,4 +2,9 @@ package pratikwayase.command;
 
 public interface Command {
     void execute();
-}
\ No newline at end of file
+
+    // Commands with the same key run one at a time in submission order on a CommandBus; null runs unordered
+    default String getOrderingKey() {
+        return null;
+    }
+}
@@ -0,0 +1,208 @@
+package pratikwayase.command;
+
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs commands on virtual threads. Commands sharing an ordering key (the room, for booking and
+ * cancellation) queue in that key's mailbox and run one at a time in submission order; commands
+ * for different rooms run in parallel. Admission is bounded twice: by the number of commands
+ * accepted but not finished, and by the queue depth of each mailbox. A command refused by either
+ * bound completes its future with a {@link RejectedExecutionException} without running.
+ */
+public class CommandBus implements AutoCloseable {
+    public static final int DEFAULT_MAX_PENDING = 10_000;
+    public static final int DEFAULT_MAX_QUEUED_PER_KEY = 256;
+
+    private final ExecutorService executor;
+    private final Semaphore capacity;
+    private final int maxPending;
+    private final int maxQueuedPerKey;
+    private final ConcurrentMap<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, CommandStats> stats = new ConcurrentHashMap<>();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public CommandBus() {
+        this(Executors.newVirtualThreadPerTaskExecutor(), DEFAULT_MAX_PENDING, DEFAULT_MAX_QUEUED_PER_KEY);
+    }
+
+    public CommandBus(ExecutorService executor, int maxPending, int maxQueuedPerKey) {
+        if (maxPending <= 0 || maxQueuedPerKey <= 0) {
+            throw new IllegalArgumentException("Queue bounds must be positive.");
+        }
+        this.executor = executor;
+        this.capacity = new Semaphore(maxPending);
+        this.maxPending = maxPending;
+        this.maxQueuedPerKey = maxQueuedPerKey;
+    }
+
+    // Completes with the command itself once it has run, so callers can read its results
+    public <C extends Command> CompletableFuture<C> submit(C command) {
+        CompletableFuture<C> future = new CompletableFuture<>();
+        if (!capacity.tryAcquire()) {
+            return reject(future, "Command bus is full.");
+        }
+        Task<C> task = new Task<>(command, future);
+        String key = command.getOrderingKey();
+        if (key == null) {
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                capacity.release();
+                return reject(future, "Command bus is closed.");
+            }
+            return future;
+        }
+        if (!mailboxes.computeIfAbsent(key, k -> new Mailbox()).offer(task)) {
+            capacity.release();
+            return reject(future, "Too many commands queued for " + key + ".");
+        }
+        return future;
+    }
+
+    // Commands accepted but not yet finished, queued or running
+    public int getPendingCount() {
+        return maxPending - capacity.availablePermits();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    // Latency figures for one command type, or null if none has run
+    public CommandStats getStats(Class<? extends Command> type) {
+        return stats.get(type);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private <C> CompletableFuture<C> reject(CompletableFuture<C> future, String reason) {
+        rejected.incrementAndGet();
+        future.completeExceptionally(new RejectedExecutionException(reason));
+        return future;
+    }
+
+    public static final class CommandStats {
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder queuedNanos = new LongAdder();
+        private final LongAdder executionNanos = new LongAdder();
+        private final AtomicLong maxExecutionNanos = new AtomicLong();
+
+        void record(long queued, long execution, boolean succeeded) {
+            (succeeded ? completed : failed).increment();
+            queuedNanos.add(queued);
+            executionNanos.add(execution);
+            maxExecutionNanos.accumulateAndGet(execution, Math::max);
+        }
+
+        public long getCompletedCount() { return completed.sum(); }
+        public long getFailedCount() { return failed.sum(); }
+        public long getMaxExecutionNanos() { return maxExecutionNanos.get(); }
+
+        public long getMeanQueuedNanos() {
+            long runs = completed.sum() + failed.sum();
+            return runs == 0 ? 0 : queuedNanos.sum() / runs;
+        }
+
+        public long getMeanExecutionNanos() {
+            long runs = completed.sum() + failed.sum();
+            return runs == 0 ? 0 : executionNanos.sum() / runs;
+        }
+    }
+
+    private final class Task<C extends Command> implements Runnable {
+        private final C command;
+        private final CompletableFuture<C> future;
+        private final long submittedAt = System.nanoTime();
+
+        Task(C command, CompletableFuture<C> future) {
+            this.command = command;
+            this.future = future;
+        }
+
+        @Override
+        public void run() {
+            long startedAt = System.nanoTime();
+            RuntimeException failure = null;
+            try {
+                command.execute();
+            } catch (RuntimeException e) {
+                failure = e;
+            } finally {
+                // recorded before the future completes, so a caller that saw the result also sees the metrics
+                stats.computeIfAbsent(command.getClass(), t -> new CommandStats())
+                        .record(startedAt - submittedAt, System.nanoTime() - startedAt, failure == null);
+                capacity.release();
+            }
+            if (failure == null) {
+                future.complete(command);
+            } else {
+                future.completeExceptionally(failure);
+            }
+        }
+
+        void reject(String reason) {
+            capacity.release();
+            CommandBus.this.reject(future, reason);
+        }
+    }
+
+    // Same drain-and-reschedule pattern as NotificationDispatcher's mailboxes, one command per step
+    private final class Mailbox implements Runnable {
+        private final Queue<Task<?>> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger depth = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        boolean offer(Task<?> task) {
+            if (depth.incrementAndGet() > maxQueuedPerKey) {
+                depth.decrementAndGet();
+                return false;
+            }
+            tasks.add(task);
+            schedule();
+            return true;
+        }
+
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    Task<?> task;
+                    while ((task = tasks.poll()) != null) {
+                        depth.decrementAndGet();
+                        task.reject("Command bus is closed.");
+                    }
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Task<?> task;
+                while ((task = tasks.poll()) != null) {
+                    try {
+                        task.run();
+                    } finally {
+                        depth.decrementAndGet();
+                    }
+                }
+                scheduled.set(false);
+                // A command may have arrived after the last poll but before the flag was cleared
+                if (tasks.isEmpty() || !scheduled.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -1,5 +1,30 @@
 package pratikwayase.enums;
 
 public enum BookingStatus {
-    REQUESTED, PENDING, CONFIRMED, CHECKED_IN, CHECKED_OUT, CANCELLED, ABANDONED
-}
\ No newline at end of file
+    REQUESTED, PENDING, CONFIRMED, CHECKED_IN, CHECKED_OUT, CANCELLED, ABANDONED;
+
+    // NEXT[from] has bit (1 << to) set for every allowed transition; checked out, cancelled and abandoned are final
+    private static final int[] NEXT = new int[values().length];
+
+    static {
+        allow(REQUESTED, PENDING, CANCELLED, ABANDONED);
+        allow(PENDING, CONFIRMED, CHECKED_IN, CANCELLED, ABANDONED); // walk-ins check in without a confirmation
+        allow(CONFIRMED, CHECKED_IN, CANCELLED);
+        allow(CHECKED_IN, CHECKED_OUT);
+    }
+
+    // A pending hold already blocks the room-nights, otherwise two guests could both pass the availability check
+    public boolean holdsRoom() {
+        return this == PENDING || this == CONFIRMED || this == CHECKED_IN;
+    }
+
+    public boolean canTransitionTo(BookingStatus next) {
+        return (NEXT[ordinal()] & (1 << next.ordinal())) != 0;
+    }
+
+    private static void allow(BookingStatus from, BookingStatus... to) {
+        for (BookingStatus next : to) {
+            NEXT[from.ordinal()] |= 1 << next.ordinal();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package pratikwayase.events;
+
+import pratikwayase.enums.BookingStatus;
+import pratikwayase.model.RoomBooking;
+
+public class BookingStatusEvent {
+    private final RoomBooking booking;
+    private final BookingStatus previousStatus;
+    private final BookingStatus status;
+
+    public BookingStatusEvent(RoomBooking booking, BookingStatus previousStatus, BookingStatus status) {
+        this.booking = booking;
+        this.previousStatus = previousStatus;
+        this.status = status;
+    }
+
+    public RoomBooking getBooking() {
+        return booking;
+    }
+
+    // null when the booking was just created
+    public BookingStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public BookingStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,29 @@
+package pratikwayase.events;
+
+import pratikwayase.model.Room;
+import pratikwayase.model.RoomBooking;
+
+public class RoomOccupancyEvent {
+    private final Room room;
+    private final RoomBooking booking;
+    private final boolean occupied;
+
+    public RoomOccupancyEvent(Room room, RoomBooking booking, boolean occupied) {
+        this.room = room;
+        this.booking = booking;
+        this.occupied = occupied;
+    }
+
+    public Room getRoom() {
+        return room;
+    }
+
+    public RoomBooking getBooking() {
+        return booking;
+    }
+
+    // true when the booking's nights were taken, false when they were released
+    public boolean isOccupied() {
+        return occupied;
+    }
+}
@@ -0,0 +1,28 @@
+package pratikwayase.events;
+
+import pratikwayase.enums.RoomStatus;
+import pratikwayase.model.Room;
+
+public class RoomStatusEvent {
+    private final Room room;
+    private final RoomStatus previousStatus;
+    private final RoomStatus status;
+
+    public RoomStatusEvent(Room room, RoomStatus previousStatus, RoomStatus status) {
+        this.room = room;
+        this.previousStatus = previousStatus;
+        this.status = status;
+    }
+
+    public Room getRoom() {
+        return room;
+    }
+
+    public RoomStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public RoomStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,9 @@
+package pratikwayase.exceptions;
+
+public class BookingStateException extends InvalidBookingException {
+    private static final long serialVersionUID = 1L;
+
+    public BookingStateException(String message) {
+        super(message);
+    }
+}
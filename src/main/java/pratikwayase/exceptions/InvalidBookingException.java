@@ -1,6 +1,8 @@
 package pratikwayase.exceptions;
 
 public class InvalidBookingException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
     public InvalidBookingException(String message) {
         super(message);
     }
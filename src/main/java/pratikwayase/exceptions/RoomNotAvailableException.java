@@ -1,6 +1,8 @@
 package pratikwayase.exceptions;
 
 public class RoomNotAvailableException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
     public RoomNotAvailableException(String message) {
         super(message);
     }
@@ -0,0 +1,539 @@
+package pratikwayase.index;
+
+import pratikwayase.Observer.Observer;
+import pratikwayase.enums.RoomStatus;
+import pratikwayase.enums.RoomStyle;
+import pratikwayase.events.RoomOccupancyEvent;
+import pratikwayase.model.Room;
+import pratikwayase.model.RoomBooking;
+import pratikwayase.util.EpochDays;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Hotel-wide occupancy bitmap: one row per epoch day over a rolling horizon, one bit per room.
+ * A search for N nights ORs N rows, inverts them and masks by style, instead of asking every
+ * room in turn. Rooms report their bookings through {@link RoomOccupancyEvent}s. Style and
+ * smoking bitsets plus a price-sorted slot list serve multi-criteria {@link RoomQuery}s.
+ * <p>
+ * The calendar never calls into a room while holding its own lock. Registering rooms and rolling
+ * the window read the rooms first and swap the result in under the write lock, retrying if an
+ * occupancy event they could not apply arrived in between.
+ */
+public class AvailabilityCalendar implements Observer<RoomOccupancyEvent> {
+    public static final int DEFAULT_HORIZON_DAYS = 731;
+
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int horizonDays;
+    private final LongSupplier today;
+    // Bit updates and searches share the read lock; growing and rolling the window take the write lock
+    private final StampedLock lock = new StampedLock();
+    private final ConcurrentMap<Room, Integer> slots = new ConcurrentHashMap<>();
+    private long[][] rows; // occupied bits, row for a day is floorMod(epochDay, horizonDays)
+    private long[][] styleMasks; // indexed by RoomStyle ordinal
+    private long[] smokingMask;
+    private Room[] rooms = new Room[64];
+    private double[] prices = new double[64]; // by slot
+    private int[] priceOrder = new int[64]; // slots sorted by price, then slot
+    private int roomCount;
+    private volatile long baseDay; // first day covered by the window
+    // Events a registration or roll reading the rooms may have missed: for rooms not registered yet with nights
+    // in the window, or for nights past the window that a roll is about to bring in. Far-future stays do not
+    // count, so a stream of them cannot keep a rescan retrying.
+    private final AtomicLong skippedUpdates = new AtomicLong();
+    private final AtomicLong rollTarget = new AtomicLong(Long.MIN_VALUE); // newest first day a roll was asked for
+
+    public AvailabilityCalendar() {
+        this(DEFAULT_HORIZON_DAYS);
+    }
+
+    public AvailabilityCalendar(int horizonDays) {
+        this(horizonDays, EpochDays::today);
+    }
+
+    // The clock is replaceable so tests can roll the window
+    AvailabilityCalendar(int horizonDays, LongSupplier today) {
+        if (horizonDays <= 0) {
+            throw new IllegalArgumentException("Horizon must be positive.");
+        }
+        this.horizonDays = horizonDays;
+        this.rows = new long[horizonDays][1];
+        this.styleMasks = new long[RoomStyle.values().length][1];
+        this.smokingMask = new long[1];
+        this.today = today;
+        this.baseDay = today.getAsLong();
+    }
+
+    public void register(Room room) {
+        registerAll(List.of(room));
+    }
+
+    /**
+     * Adds rooms in one write-locked pass: the bitmaps grow once, the new slots are sorted by
+     * price and merged into the price index, and only rooms that already have bookings are
+     * scanned for the nights they hold, before the lock is taken.
+     */
+    public void registerAll(List<Room> added) {
+        while (!tryRegisterAll(added)) {
+            // an added room's booking changed, or the window moved, while the rooms were read
+        }
+    }
+
+    private boolean tryRegisterAll(List<Room> added) {
+        long skipped = skippedUpdates.get();
+        long base = baseDay;
+        Map<Room, BitSet> held = new HashMap<>();
+        for (Room room : added) {
+            if (!room.bookings.isEmpty()) {
+                held.put(room, heldNights(room, base));
+            }
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (baseDay != base || skippedUpdates.get() != skipped) {
+                return false;
+            }
+            int first = roomCount;
+            int count = first;
+            for (Room room : added) {
+                if (slots.putIfAbsent(room, count) == null) {
+                    if (count == rooms.length) {
+                        int capacity = Math.max(count * 2, first + added.size());
+                        rooms = Arrays.copyOf(rooms, capacity);
+                        prices = Arrays.copyOf(prices, capacity);
+                        priceOrder = Arrays.copyOf(priceOrder, capacity);
+                    }
+                    rooms[count] = room;
+                    prices[count] = room.getBookingPrice();
+                    count++;
+                }
+            }
+            if (count == first) {
+                return true;
+            }
+            int words = wordIndex(count - 1) + 1;
+            if (words > rows[0].length) {
+                int capacity = Math.max(words, rows[0].length * 2);
+                for (int i = 0; i < horizonDays; i++) {
+                    rows[i] = Arrays.copyOf(rows[i], capacity);
+                }
+                for (int i = 0; i < styleMasks.length; i++) {
+                    styleMasks[i] = Arrays.copyOf(styleMasks[i], capacity);
+                }
+                smokingMask = Arrays.copyOf(smokingMask, capacity);
+            }
+            mergePriceOrder(first, count);
+            for (int slot = first; slot < count; slot++) {
+                Room room = rooms[slot];
+                styleMasks[room.getStyle().ordinal()][wordIndex(slot)] |= bit(slot);
+                if (room.isSmoking()) {
+                    smokingMask[wordIndex(slot)] |= bit(slot);
+                }
+                BitSet nights = held.get(room);
+                if (nights == null) {
+                    continue;
+                }
+                for (int night = nights.nextSetBit(0); night >= 0; night = nights.nextSetBit(night + 1)) {
+                    rows[rowIndex(base + night)][wordIndex(slot)] |= bit(slot);
+                }
+            }
+            roomCount = count;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void update(RoomOccupancyEvent event) {
+        RoomBooking booking = event.getBooking();
+        long stamp = lock.readLock();
+        try {
+            Integer slot = slots.get(event.getRoom()); // under the lock, so a registration either sees the skip or gets the event
+            long windowEnd = baseDay + horizonDays;
+            if (slot == null) {
+                if (booking.getStartEpochDay() < windowEnd && booking.getEndEpochDay() > baseDay) {
+                    skippedUpdates.incrementAndGet();
+                }
+                return;
+            }
+            if (booking.getEndEpochDay() > windowEnd && booking.getStartEpochDay() < rollTarget.get() + horizonDays) {
+                skippedUpdates.incrementAndGet();
+            }
+            long from = Math.max(booking.getStartEpochDay(), baseDay);
+            long to = Math.min(booking.getEndEpochDay(), baseDay + horizonDays);
+            int word = wordIndex(slot);
+            long bit = bit(slot);
+            for (long day = from; day < to; day++) {
+                long[] row = rows[rowIndex(day)];
+                if (event.isOccupied()) {
+                    WORDS.getAndBitwiseOr(row, word, bit);
+                } else {
+                    WORDS.getAndBitwiseAnd(row, word, ~bit);
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public boolean covers(long startEpochDay, int nights) {
+        long base = baseDay;
+        return nights > 0 && startEpochDay >= base && startEpochDay + nights <= base + horizonDays;
+    }
+
+    /**
+     * Rooms free for every night of the stay, optionally restricted to one style, in registration
+     * order. Returns null when the stay falls outside the calendar window; callers then fall back
+     * to asking the rooms directly.
+     */
+    public List<Room> findAvailableRooms(RoomStyle style, long startEpochDay, int nights) {
+        rollForward();
+        long stamp = lock.readLock();
+        try {
+            if (!covers(startEpochDay, nights)) {
+                return null;
+            }
+            int count = roomCount;
+            int words = wordIndex(count - 1) + 1;
+            long[] free = new long[Math.max(words, 0)];
+            long[] styleMask = style == null ? null : styleMasks[style.ordinal()];
+            for (int w = 0; w < free.length; w++) {
+                long occupied = 0L;
+                for (int n = 0; n < nights; n++) {
+                    occupied |= rows[rowIndex(startEpochDay + n)][w];
+                }
+                free[w] = styleMask == null ? ~occupied : ~occupied & styleMask[w];
+            }
+            List<Room> result = new ArrayList<>();
+            for (int w = 0; w < free.length; w++) {
+                long bits = free[w];
+                while (bits != 0) {
+                    int slot = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    if (slot >= count) {
+                        break;
+                    }
+                    Room room = rooms[slot];
+                    if (room.getStatus() == RoomStatus.AVAILABLE) {
+                        result.add(room);
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Answers a multi-criteria query. The planner compares the rooms left by the style and smoking
+     * bitsets with the rooms in the price range and drives the search from the smaller set; the
+     * availability check only runs on rooms that pass every other filter. Price-sorted pages walk
+     * the price index in order and stop once the page is full, or keep a heap of the best
+     * offset + limit rooms when the bitsets are more selective, so the candidates are never fully sorted.
+     * Stays outside the window are checked room by room, after the lock is released.
+     */
+    public List<Room> find(RoomQuery query) {
+        rollForward();
+        int wanted = query.wanted();
+        boolean covered;
+        List<Room> matches = new ArrayList<>();
+        long stamp = lock.readLock();
+        try {
+            int count = roomCount;
+            if (count == 0 || query.getNights() <= 0 || wanted == 0) {
+                return new ArrayList<>();
+            }
+            long[] candidates = attributeMask(query, count);
+            int from = priceBound(query.getMinPrice(), false);
+            int to = priceBound(query.getMaxPrice(), true);
+            boolean priceFirst = to - from <= bitCount(candidates);
+            covered = covers(query.getStartEpochDay(), query.getNights());
+            int limit = covered ? wanted : Integer.MAX_VALUE; // uncovered, every room passing the other filters is a candidate
+
+            if (query.getSortOrder() != RoomQuery.SortOrder.NONE && priceFirst) {
+                boolean ascending = query.getSortOrder() == RoomQuery.SortOrder.PRICE_ASCENDING;
+                for (int i = 0; i < to - from && matches.size() < limit; i++) {
+                    int slot = priceOrder[ascending ? from + i : to - 1 - i];
+                    if (isSet(candidates, slot) && isFree(slot, query, covered)) {
+                        matches.add(rooms[slot]);
+                    }
+                }
+            } else if (query.getSortOrder() != RoomQuery.SortOrder.NONE) {
+                matches = topByPrice(candidates, query, covered, limit);
+            } else {
+                if (priceFirst) {
+                    long[] inRange = new long[candidates.length];
+                    for (int i = from; i < to; i++) {
+                        inRange[wordIndex(priceOrder[i])] |= bit(priceOrder[i]);
+                    }
+                    for (int w = 0; w < candidates.length; w++) {
+                        candidates[w] &= inRange[w];
+                    }
+                }
+                for (int w = 0; w < candidates.length && matches.size() < limit; w++) {
+                    long bits = candidates[w];
+                    while (bits != 0 && matches.size() < limit) {
+                        int slot = (w << 6) + Long.numberOfTrailingZeros(bits);
+                        bits &= bits - 1;
+                        if ((priceFirst || inPriceRange(slot, query)) && isFree(slot, query, covered)) {
+                            matches.add(rooms[slot]);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        if (!covered) {
+            matches = unbooked(matches, query, wanted);
+        }
+        int offset = Math.min(query.getOffset(), matches.size());
+        return new ArrayList<>(matches.subList(offset, matches.size()));
+    }
+
+    public List<Room> getRooms() {
+        long stamp = lock.readLock();
+        try {
+            return new ArrayList<>(Arrays.asList(rooms).subList(0, roomCount));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Style and smoking filters as a bitset of candidate slots; a fresh array the caller may modify
+    private long[] attributeMask(RoomQuery query, int count) {
+        int words = wordIndex(count - 1) + 1;
+        long[] mask = query.getStyle() != null
+                ? Arrays.copyOf(styleMasks[query.getStyle().ordinal()], words)
+                : new long[words];
+        if (query.getStyle() == null) {
+            Arrays.fill(mask, -1L);
+            if ((count & 63) != 0) {
+                mask[words - 1] = bit(count) - 1;
+            }
+        }
+        if (query.getSmoking() != null) {
+            boolean smoking = query.getSmoking();
+            for (int w = 0; w < words; w++) {
+                mask[w] &= smoking ? smokingMask[w] : ~smokingMask[w];
+            }
+        }
+        return mask;
+    }
+
+    // Keeps the best offset + limit rooms by price in a bounded heap whose head is the worst kept
+    private List<Room> topByPrice(long[] candidates, RoomQuery query, boolean covered, int wanted) {
+        Comparator<Integer> order = Comparator.<Integer>comparingDouble(slot -> prices[slot]).thenComparingInt(slot -> slot);
+        if (query.getSortOrder() == RoomQuery.SortOrder.PRICE_DESCENDING) {
+            order = order.reversed();
+        }
+        PriorityQueue<Integer> best = new PriorityQueue<>(order.reversed());
+        for (int w = 0; w < candidates.length; w++) {
+            long bits = candidates[w];
+            while (bits != 0) {
+                int slot = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (!inPriceRange(slot, query)) {
+                    continue;
+                }
+                if (best.size() == wanted && order.compare(slot, best.peek()) >= 0) {
+                    continue; // no better than the worst kept, skip the availability check
+                }
+                if (isFree(slot, query, covered)) {
+                    best.add(slot);
+                    if (best.size() > wanted) {
+                        best.poll();
+                    }
+                }
+            }
+        }
+        Integer[] kept = best.toArray(new Integer[0]);
+        Arrays.sort(kept, order);
+        List<Room> result = new ArrayList<>(kept.length);
+        for (Integer slot : kept) {
+            result.add(rooms[slot]);
+        }
+        return result;
+    }
+
+    // Outside the window only the status is checked here; find asks the rooms once unlocked
+    private boolean isFree(int slot, RoomQuery query, boolean covered) {
+        Room room = rooms[slot];
+        if (room.getStatus() != RoomStatus.AVAILABLE) {
+            return false;
+        }
+        if (!covered) {
+            return true;
+        }
+        int word = wordIndex(slot);
+        long bit = bit(slot);
+        for (int n = 0; n < query.getNights(); n++) {
+            if ((rows[rowIndex(query.getStartEpochDay() + n)][word] & bit) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The first rooms of the candidates, in order, with no stay overlapping the query's nights
+    private static List<Room> unbooked(List<Room> candidates, RoomQuery query, int wanted) {
+        List<Room> result = new ArrayList<>();
+        for (int i = 0; i < candidates.size() && result.size() < wanted; i++) {
+            Room room = candidates.get(i);
+            if (!room.isBooked(query.getStartEpochDay(), query.getNights())) {
+                result.add(room);
+            }
+        }
+        return result;
+    }
+
+    // Nights of the window starting at base that the room holds, by offset from base
+    private BitSet heldNights(Room room, long base) {
+        BitSet nights = new BitSet(horizonDays);
+        for (int night = 0; night < horizonDays; night++) {
+            if (room.isBooked(base + night, 1)) {
+                nights.set(night);
+            }
+        }
+        return nights;
+    }
+
+    private boolean inPriceRange(int slot, RoomQuery query) {
+        return prices[slot] >= query.getMinPrice() && prices[slot] <= query.getMaxPrice();
+    }
+
+    // Sorts the new slots [first, count) by price, then slot, and merges them behind equal prices already indexed
+    private void mergePriceOrder(int first, int count) {
+        if (count - first == 1) {
+            int position = priceBound(prices[first], true);
+            System.arraycopy(priceOrder, position, priceOrder, position + 1, first - position);
+            priceOrder[position] = first;
+            return;
+        }
+        Integer[] fresh = new Integer[count - first];
+        for (int i = 0; i < fresh.length; i++) {
+            fresh[i] = first + i;
+        }
+        Arrays.sort(fresh, Comparator.<Integer>comparingDouble(slot -> prices[slot]).thenComparingInt(slot -> slot));
+        int[] merged = new int[priceOrder.length];
+        int old = 0;
+        int added = 0;
+        for (int i = 0; i < count; i++) {
+            if (added == fresh.length || (old < first && prices[priceOrder[old]] <= prices[fresh[added]])) {
+                merged[i] = priceOrder[old++];
+            } else {
+                merged[i] = fresh[added++];
+            }
+        }
+        priceOrder = merged;
+    }
+
+    // First position in priceOrder whose price is above the given one (or at least it, when not inclusive)
+    private int priceBound(double price, boolean inclusive) {
+        int low = 0;
+        int high = roomCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            double p = prices[priceOrder[mid]];
+            if (p < price || (inclusive && p == price)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int bitCount(long[] mask) {
+        int count = 0;
+        for (long word : mask) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private static boolean isSet(long[] mask, int slot) {
+        return (mask[wordIndex(slot)] & bit(slot)) != 0;
+    }
+
+    // Recycles the rows of days that have passed for the days entering the far end of the window
+    private void rollForward() {
+        long day = today.getAsLong();
+        if (day <= baseDay) {
+            return;
+        }
+        rollTarget.accumulateAndGet(day, Math::max); // before the rooms are read, so events for the new days count
+        while (day > baseDay && !tryRollForward(day)) {
+            // a room was added, or a booking past the window changed, while the new days were read
+        }
+    }
+
+    // Builds the rows of the days entering the window from the rooms, then swaps them in under the write lock
+    private boolean tryRollForward(long newBase) {
+        long skipped = skippedUpdates.get();
+        Room[] known;
+        int count;
+        long oldBase;
+        long stamp = lock.readLock();
+        try {
+            known = rooms;
+            count = roomCount;
+            oldBase = baseDay;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        if (newBase <= oldBase) {
+            return true;
+        }
+        long firstNewDay = Math.max(oldBase + horizonDays, newBase);
+        long[][] fresh = new long[(int) (newBase + horizonDays - firstNewDay)][wordIndex(count - 1) + 1];
+        for (int i = 0; i < fresh.length; i++) {
+            for (int slot = 0; slot < count; slot++) {
+                if (known[slot].isBooked(firstNewDay + i, 1)) {
+                    fresh[i][wordIndex(slot)] |= bit(slot);
+                }
+            }
+        }
+        stamp = lock.writeLock();
+        try {
+            if (baseDay != oldBase || roomCount != count || skippedUpdates.get() != skipped) {
+                return false;
+            }
+            for (int i = 0; i < fresh.length; i++) {
+                long[] row = rows[rowIndex(firstNewDay + i)];
+                Arrays.fill(row, 0L);
+                System.arraycopy(fresh[i], 0, row, 0, fresh[i].length);
+            }
+            baseDay = newBase;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    long getSkippedUpdateCount() {
+        return skippedUpdates.get();
+    }
+
+    private int rowIndex(long epochDay) {
+        return (int) Math.floorMod(epochDay, (long) horizonDays);
+    }
+
+    private static int wordIndex(int slot) {
+        return slot >> 6;
+    }
+
+    private static long bit(int slot) {
+        return 1L << slot;
+    }
+}
@@ -0,0 +1,112 @@
+package pratikwayase.index;
+
+import java.util.Arrays;
+
+/**
+ * Half-open [start, end) intervals kept sorted by start, with a running maximum of the
+ * end values. An overlap query is one binary search plus one comparison and never allocates.
+ * Writers need exclusive access. {@link #overlaps} tolerates a concurrent writer so it can run
+ * under an optimistic read, in which case its answer is only meaningful once the read is validated.
+ */
+public class IntervalIndex<T> {
+    private static final int INITIAL_CAPACITY = 8;
+    // Shared by every empty index, so a room that is never booked costs no arrays
+    private static final long[] NO_LONGS = new long[0];
+    private static final Object[] NO_OWNERS = new Object[0];
+
+    private long[] starts = NO_LONGS;
+    private long[] ends = NO_LONGS;
+    private long[] maxEnds = NO_LONGS;
+    private Object[] owners = NO_OWNERS;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean overlaps(long start, long end) {
+        long[] s = starts;
+        long[] m = maxEnds;
+        int n = Math.min(size, Math.min(s.length, m.length)); // arrays may be mid-grow under an optimistic read
+        int last = firstStartAtOrAfter(s, n, end) - 1; // last interval starting before the requested end
+        return last >= 0 && m[last] > start;
+    }
+
+    public void insert(T owner, long start, long end) {
+        if (size == starts.length) {
+            grow();
+        }
+        int pos = firstStartAtOrAfter(start + 1);
+        int tail = size - pos;
+        System.arraycopy(starts, pos, starts, pos + 1, tail);
+        System.arraycopy(ends, pos, ends, pos + 1, tail);
+        System.arraycopy(owners, pos, owners, pos + 1, tail);
+        starts[pos] = start;
+        ends[pos] = end;
+        owners[pos] = owner;
+        size++;
+        recomputeMaxEnds(pos);
+    }
+
+    public boolean remove(T owner, long start) {
+        int pos = indexOf(owner, start);
+        if (pos < 0) {
+            return false;
+        }
+        int tail = size - pos - 1;
+        System.arraycopy(starts, pos + 1, starts, pos, tail);
+        System.arraycopy(ends, pos + 1, ends, pos, tail);
+        System.arraycopy(owners, pos + 1, owners, pos, tail);
+        size--;
+        owners[size] = null;
+        recomputeMaxEnds(pos);
+        return true;
+    }
+
+    public boolean contains(T owner, long start) {
+        return indexOf(owner, start) >= 0;
+    }
+
+    private int indexOf(Object owner, long start) {
+        for (int i = firstStartAtOrAfter(start); i < size && starts[i] == start; i++) {
+            if (owners[i] == owner) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int firstStartAtOrAfter(long value) {
+        return firstStartAtOrAfter(starts, size, value);
+    }
+
+    private static int firstStartAtOrAfter(long[] starts, int size, long value) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void recomputeMaxEnds(int from) {
+        long max = from == 0 ? Long.MIN_VALUE : maxEnds[from - 1];
+        for (int i = from; i < size; i++) {
+            max = Math.max(max, ends[i]);
+            maxEnds[i] = max;
+        }
+    }
+
+    private void grow() {
+        int capacity = Math.max(INITIAL_CAPACITY, starts.length * 2);
+        starts = Arrays.copyOf(starts, capacity);
+        ends = Arrays.copyOf(ends, capacity);
+        maxEnds = Arrays.copyOf(maxEnds, capacity);
+        owners = Arrays.copyOf(owners, capacity);
+    }
+}
@@ -0,0 +1,86 @@
+package pratikwayase.index;
+
+import pratikwayase.enums.RoomStyle;
+
+/**
+ * A room search over every attribute the hotel indexes: the stay, style, smoking, a price range,
+ * an optional price sort and a page. Unset filters match every room.
+ */
+public class RoomQuery {
+    public enum SortOrder { NONE, PRICE_ASCENDING, PRICE_DESCENDING }
+
+    private final long startEpochDay;
+    private final int nights;
+    private RoomStyle style;
+    private Boolean smoking;
+    private double minPrice = 0;
+    private double maxPrice = Double.POSITIVE_INFINITY;
+    private SortOrder sortOrder = SortOrder.NONE;
+    private int offset;
+    private int limit = Integer.MAX_VALUE;
+
+    public RoomQuery(long startEpochDay, int nights) {
+        this.startEpochDay = startEpochDay;
+        this.nights = nights;
+    }
+
+    public RoomQuery style(RoomStyle style) {
+        this.style = style;
+        return this;
+    }
+
+    public RoomQuery smoking(boolean smoking) {
+        this.smoking = smoking;
+        return this;
+    }
+
+    public RoomQuery priceBetween(double minPrice, double maxPrice) {
+        if (minPrice > maxPrice) {
+            throw new IllegalArgumentException("Minimum price is above maximum price.");
+        }
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        return this;
+    }
+
+    public RoomQuery sortBy(SortOrder sortOrder) {
+        this.sortOrder = sortOrder;
+        return this;
+    }
+
+    public RoomQuery page(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit cannot be negative.");
+        }
+        this.offset = offset;
+        this.limit = limit;
+        return this;
+    }
+
+    public long getStartEpochDay() { return startEpochDay; }
+    public int getNights() { return nights; }
+    public RoomStyle getStyle() { return style; }
+    public Boolean getSmoking() { return smoking; }
+    public double getMinPrice() { return minPrice; }
+    public double getMaxPrice() { return maxPrice; }
+    public SortOrder getSortOrder() { return sortOrder; }
+    public int getOffset() { return offset; }
+    public int getLimit() { return limit; }
+
+    // The same query from the first room through the end of this page, for merging partial answers
+    public RoomQuery throughPage() {
+        RoomQuery copy = new RoomQuery(startEpochDay, nights);
+        copy.style = style;
+        copy.smoking = smoking;
+        copy.minPrice = minPrice;
+        copy.maxPrice = maxPrice;
+        copy.sortOrder = sortOrder;
+        copy.limit = wanted();
+        return copy;
+    }
+
+    // Rooms to find before the page is complete, offset included
+    int wanted() {
+        return (int) Math.min(Integer.MAX_VALUE, (long) offset + limit);
+    }
+}
@@ -0,0 +1,188 @@
+package pratikwayase.logging;
+
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded ring buffer of preallocated entries drained by one background writer thread.
+ * Producers claim a slot with a CAS and copy the template and arguments into it, so logging
+ * allocates nothing and never blocks; when the ring is full the entry is dropped and counted.
+ */
+public class AsyncEventLog extends EventLog {
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    private static final VarHandle SEQUENCE;
+
+    static {
+        try {
+            SEQUENCE = MethodHandles.lookup().findVarHandle(Entry.class, "sequence", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Entry[] ring;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head; // written only by the writer thread
+    private final AtomicLong dropped = new AtomicLong();
+    private final PrintStream out;
+    private final Thread writer;
+    private volatile LogLevel level;
+    private volatile boolean closed;
+
+    public AsyncEventLog(LogLevel level, PrintStream out, int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two.");
+        }
+        this.level = level;
+        this.out = out;
+        this.ring = new Entry[capacity];
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new Entry(i);
+        }
+        this.writer = new Thread(this::drainLoop, "event-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public void setLevel(LogLevel level) {
+        this.level = level;
+    }
+
+    public LogLevel getLevel() {
+        return level;
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    @Override
+    public boolean isEnabled(LogLevel level) {
+        return level != LogLevel.OFF && level.compareTo(this.level) >= 0 && !closed;
+    }
+
+    @Override
+    public void log(LogLevel level, String template, Object a0, Object a1, Object a2, Object a3) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        long position = tail.get();
+        while (true) {
+            Entry entry = ring[(int) position & mask];
+            long sequence = (long) SEQUENCE.getAcquire(entry);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    entry.fill(level, template, a0, a1, a2, a3);
+                    SEQUENCE.setRelease(entry, position + 1);
+                    LockSupport.unpark(writer);
+                    return;
+                }
+                position = tail.get();
+            } else if (sequence < position) {
+                dropped.incrementAndGet(); // ring is full, never hold up the caller
+                return;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+        long target = tail.get();
+        while (head < target && writer.isAlive()) {
+            LockSupport.unpark(writer);
+            Thread.onSpinWait();
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() {
+        flush();
+        closed = true;
+        LockSupport.unpark(writer);
+    }
+
+    private void drainLoop() {
+        StringBuilder line = new StringBuilder(256);
+        while (!closed || head < tail.get()) {
+            long position = head;
+            Entry entry = ring[(int) position & mask];
+            if ((long) SEQUENCE.getAcquire(entry) != position + 1) {
+                out.flush();
+                LockSupport.parkNanos(this, 1_000_000L);
+                continue;
+            }
+            line.setLength(0);
+            entry.format(line);
+            entry.clear();
+            SEQUENCE.setRelease(entry, position + ring.length);
+            head = position + 1;
+            out.println(line);
+        }
+        out.flush();
+    }
+
+    private static final class Entry {
+        @SuppressWarnings("unused") // accessed through SEQUENCE
+        private long sequence;
+        private LogLevel level;
+        private String template;
+        private String threadName;
+        private long timestamp;
+        private Object a0, a1, a2, a3;
+
+        Entry(long sequence) {
+            this.sequence = sequence;
+        }
+
+        void fill(LogLevel level, String template, Object a0, Object a1, Object a2, Object a3) {
+            this.level = level;
+            this.template = template;
+            this.threadName = Thread.currentThread().getName();
+            this.timestamp = System.currentTimeMillis();
+            this.a0 = a0;
+            this.a1 = a1;
+            this.a2 = a2;
+            this.a3 = a3;
+        }
+
+        void format(StringBuilder line) {
+            line.append(Instant.ofEpochMilli(timestamp)).append(' ')
+                    .append(level).append(' ')
+                    .append('[').append(threadName).append("] ");
+            int argument = 0;
+            int from = 0;
+            int at;
+            while ((at = template.indexOf("{}", from)) >= 0) {
+                line.append(template, from, at).append(argument(argument++));
+                from = at + 2;
+            }
+            line.append(template, from, template.length());
+        }
+
+        private Object argument(int index) {
+            switch (index) {
+                case 0: return a0;
+                case 1: return a1;
+                case 2: return a2;
+                case 3: return a3;
+                default: return "{}";
+            }
+        }
+
+        void clear() {
+            template = null;
+            threadName = null;
+            a0 = a1 = a2 = a3 = null;
+        }
+    }
+}
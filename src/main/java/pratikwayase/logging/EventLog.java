@@ -0,0 +1,62 @@
+package pratikwayase.logging;
+
+/**
+ * Audit/event log used by the booking code instead of System.out. Messages are templates with
+ * {@code {}} placeholders and up to four arguments; formatting is left to the implementation so
+ * the caller only pays for the level check and a hand-off.
+ * <p>
+ * The process-wide log is an {@link AsyncEventLog} at INFO; {@link #install} swaps it, e.g. for
+ * {@link #noop()} in benchmarks.
+ */
+public abstract class EventLog {
+    private static volatile EventLog current = new AsyncEventLog(LogLevel.INFO, System.out, AsyncEventLog.DEFAULT_CAPACITY);
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> current.flush(), "event-log-flush"));
+    }
+
+    public static EventLog get() {
+        return current;
+    }
+
+    public static void install(EventLog log) {
+        EventLog previous = current;
+        current = log;
+        if (previous != log) {
+            previous.close();
+        }
+    }
+
+    public static EventLog noop() {
+        return NoopEventLog.INSTANCE;
+    }
+
+    public abstract boolean isEnabled(LogLevel level);
+
+    public abstract void log(LogLevel level, String template, Object a0, Object a1, Object a2, Object a3);
+
+    // Blocks until everything logged so far has been written
+    public void flush() {
+    }
+
+    public void close() {
+    }
+
+    public static void debug(String template) { current.log(LogLevel.DEBUG, template, null, null, null, null); }
+    public static void debug(String template, Object a0) { current.log(LogLevel.DEBUG, template, a0, null, null, null); }
+    public static void debug(String template, Object a0, Object a1) { current.log(LogLevel.DEBUG, template, a0, a1, null, null); }
+
+    public static void info(String template) { current.log(LogLevel.INFO, template, null, null, null, null); }
+    public static void info(String template, Object a0) { current.log(LogLevel.INFO, template, a0, null, null, null); }
+    public static void info(String template, Object a0, Object a1) { current.log(LogLevel.INFO, template, a0, a1, null, null); }
+    public static void info(String template, Object a0, Object a1, Object a2) { current.log(LogLevel.INFO, template, a0, a1, a2, null); }
+    public static void info(String template, Object a0, Object a1, Object a2, Object a3) { current.log(LogLevel.INFO, template, a0, a1, a2, a3); }
+
+    public static void warn(String template) { current.log(LogLevel.WARN, template, null, null, null, null); }
+    public static void warn(String template, Object a0) { current.log(LogLevel.WARN, template, a0, null, null, null); }
+    public static void warn(String template, Object a0, Object a1) { current.log(LogLevel.WARN, template, a0, a1, null, null); }
+
+    public static void error(String template) { current.log(LogLevel.ERROR, template, null, null, null, null); }
+    public static void error(String template, Object a0) { current.log(LogLevel.ERROR, template, a0, null, null, null); }
+    public static void error(String template, Object a0, Object a1) { current.log(LogLevel.ERROR, template, a0, a1, null, null); }
+}
@@ -0,0 +1,5 @@
+package pratikwayase.logging;
+
+public enum LogLevel {
+    DEBUG, INFO, WARN, ERROR, OFF
+}
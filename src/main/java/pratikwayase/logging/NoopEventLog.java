@@ -0,0 +1,17 @@
+package pratikwayase.logging;
+
+final class NoopEventLog extends EventLog {
+    static final NoopEventLog INSTANCE = new NoopEventLog();
+
+    private NoopEventLog() {
+    }
+
+    @Override
+    public boolean isEnabled(LogLevel level) {
+        return false;
+    }
+
+    @Override
+    public void log(LogLevel level, String template, Object a0, Object a1, Object a2, Object a3) {
+    }
+}
@@ -0,0 +1,119 @@
+package pratikwayase.metrics;
+
+import pratikwayase.enums.BookingStatus;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide instrumentation of the booking hot paths: a latency histogram per
+ * {@link Operation}, the time threads spent waiting for a room's lock when it was held by someone
+ * else, the number of reservations refused because the room was taken, the number of availability
+ * checks that found the room unavailable and the number of booking status changes refused by the
+ * transition table or lost to a concurrent change. Like
+ * {@link pratikwayase.logging.EventLog} it is static, so the model needs no wiring.
+ * <p>
+ * A timed call costs two {@code System.nanoTime()} reads and a few uncontended atomic adds.
+ * Availability checks are shorter than that, so only one in {@value #SAMPLE_RATE} is timed; their
+ * histogram count is of the sampled calls and {@link PrometheusEndpoint} scales it back up.
+ * {@code -Dhotel.metrics=false} turns recording off; the flag is a constant, so the JIT removes
+ * the calls entirely.
+ */
+public final class HotelMetrics {
+    public enum Operation {
+        CREATE_BOOKING, CONFIRM_BOOKING, CANCEL_BOOKING, SEARCH_ROOMS, IS_ROOM_AVAILABLE
+    }
+
+    public static final int SAMPLE_RATE = 64;
+
+    private static final boolean ENABLED = !"false".equals(System.getProperty("hotel.metrics"));
+
+    private static final LatencyHistogram[] operations = new LatencyHistogram[Operation.values().length];
+    private static final LatencyHistogram roomLockWait = new LatencyHistogram();
+    private static final LongAdder unavailableRooms = new LongAdder();
+    private static final LongAdder failedAvailabilityChecks = new LongAdder();
+    private static final LongAdder[] rejectedTransitions = new LongAdder[BookingStatus.values().length]; // by target status
+
+    static {
+        for (int i = 0; i < operations.length; i++) {
+            operations[i] = new LatencyHistogram();
+        }
+        for (int i = 0; i < rejectedTransitions.length; i++) {
+            rejectedTransitions[i] = new LongAdder();
+        }
+    }
+
+    private HotelMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    // Pair with record: long started = HotelMetrics.start(); try { ... } finally { HotelMetrics.record(op, started); }
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    // Like start, but returns 0 for the calls left untimed, which record then ignores
+    public static long startSampled() {
+        return ENABLED && (ThreadLocalRandom.current().nextInt() & (SAMPLE_RATE - 1)) == 0 ? System.nanoTime() : 0;
+    }
+
+    public static void record(Operation operation, long started) {
+        if (ENABLED && started != 0) {
+            operations[operation.ordinal()].record(System.nanoTime() - started);
+        }
+    }
+
+    // Only contended acquisitions are recorded, so the count is how often a room's lock was busy
+    public static void recordRoomLockWait(long waitedNanos) {
+        if (ENABLED) {
+            roomLockWait.record(waitedNanos);
+        }
+    }
+
+    public static void countUnavailableRoom() {
+        if (ENABLED) {
+            unavailableRooms.increment();
+        }
+    }
+
+    // Every failed check is counted, not only the sampled ones
+    public static void countFailedAvailabilityCheck() {
+        if (ENABLED) {
+            failedAvailabilityChecks.increment();
+        }
+    }
+
+    public static void countRejectedTransition(BookingStatus target) {
+        if (ENABLED) {
+            rejectedTransitions[target.ordinal()].increment();
+        }
+    }
+
+    public static LatencyHistogram.Snapshot getLatency(Operation operation) {
+        return operations[operation.ordinal()].snapshot();
+    }
+
+    public static LatencyHistogram.Snapshot getRoomLockWait() {
+        return roomLockWait.snapshot();
+    }
+
+    public static long getUnavailableRoomCount() {
+        return unavailableRooms.sum();
+    }
+
+    public static long getFailedAvailabilityCheckCount() {
+        return failedAvailabilityChecks.sum();
+    }
+
+    // How many calls one recorded sample of the operation stands for
+    public static int getSampleRate(Operation operation) {
+        return operation == Operation.IS_ROOM_AVAILABLE ? SAMPLE_RATE : 1;
+    }
+
+    public static long getRejectedTransitionCount(BookingStatus target) {
+        return rejectedTransitions[target.ordinal()].sum();
+    }
+}
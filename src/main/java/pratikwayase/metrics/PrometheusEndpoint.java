@@ -0,0 +1,101 @@
+package pratikwayase.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import pratikwayase.enums.BookingStatus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves {@link HotelMetrics} in the Prometheus text format on {@code GET /metrics}, using the
+ * JDK's built-in HTTP server on a virtual thread per request. Latencies are exported as
+ * summaries in seconds with the 50th, 90th, 99th and 99.9th percentiles. The count and sum of a
+ * sampled operation are scaled by its sample rate, so they estimate all calls.
+ */
+public class PrometheusEndpoint implements AutoCloseable {
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final HttpServer server;
+
+    // Port 0 picks a free port, see getPort
+    public PrometheusEndpoint(int port) {
+        try {
+            server = HttpServer.create(new InetSocketAddress(port), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open metrics port " + port + ".", e);
+        }
+        server.createContext("/metrics", this::handle);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    public static String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        header(out, "hotel_operation_latency_seconds", "summary", "Latency of booking operations.");
+        for (HotelMetrics.Operation operation : HotelMetrics.Operation.values()) {
+            summary(out, "hotel_operation_latency_seconds", "operation=\"" + operation.name().toLowerCase(Locale.ROOT) + "\"",
+                    HotelMetrics.getLatency(operation), HotelMetrics.getSampleRate(operation));
+        }
+        header(out, "hotel_lock_wait_seconds", "summary", "Time spent waiting for a lock held by another thread.");
+        summary(out, "hotel_lock_wait_seconds", "lock=\"room\"", HotelMetrics.getRoomLockWait(), 1);
+        header(out, "hotel_room_unavailable_total", "counter", "Reservations refused because the room was taken.");
+        out.append("hotel_room_unavailable_total ").append(HotelMetrics.getUnavailableRoomCount()).append('\n');
+        header(out, "hotel_availability_check_failed_total", "counter", "Availability checks that found the room unavailable.");
+        out.append("hotel_availability_check_failed_total ").append(HotelMetrics.getFailedAvailabilityCheckCount()).append('\n');
+        header(out, "hotel_booking_transition_rejected_total", "counter", "Booking status changes refused or lost to a concurrent change.");
+        for (BookingStatus status : BookingStatus.values()) {
+            out.append("hotel_booking_transition_rejected_total{to=\"").append(status.name().toLowerCase(Locale.ROOT)).append("\"} ")
+                    .append(HotelMetrics.getRejectedTransitionCount(status)).append('\n');
+        }
+        return out.toString();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void summary(StringBuilder out, String name, String labels, LatencyHistogram.Snapshot snapshot, int sampleRate) {
+        for (double quantile : QUANTILES) {
+            out.append(name).append('{').append(labels).append(",quantile=\"").append(quantile).append("\"} ")
+                    .append(seconds(snapshot.getValueAtQuantile(quantile))).append('\n');
+        }
+        out.append(name).append("_sum{").append(labels).append("} ").append(seconds(snapshot.getSumNanos() * sampleRate)).append('\n');
+        out.append(name).append("_count{").append(labels).append("} ").append(snapshot.getCount() * sampleRate).append('\n');
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1e9;
+    }
+}
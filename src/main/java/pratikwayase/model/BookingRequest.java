@@ -0,0 +1,32 @@
+package pratikwayase.model;
+
+import pratikwayase.exceptions.InvalidBookingException;
+import java.util.Date;
+
+// One stay of a block reservation passed to Hotel.createBookings
+public class BookingRequest {
+    private final String reservationNumber;
+    private final String roomNumber;
+    private final String guestId;
+    private final long startEpochDay;
+    private final int durationInDays;
+
+    public BookingRequest(String reservationNumber, String roomNumber, String guestId, Date startDate, int durationInDays)
+            throws InvalidBookingException {
+        this(reservationNumber, roomNumber, guestId, RoomBooking.startDayOf(startDate), durationInDays);
+    }
+
+    public BookingRequest(String reservationNumber, String roomNumber, String guestId, long startEpochDay, int durationInDays) {
+        this.reservationNumber = reservationNumber;
+        this.roomNumber = roomNumber;
+        this.guestId = guestId;
+        this.startEpochDay = startEpochDay;
+        this.durationInDays = durationInDays;
+    }
+
+    public String getReservationNumber() { return reservationNumber; }
+    public String getRoomNumber() { return roomNumber; }
+    public String getGuestId() { return guestId; }
+    public long getStartEpochDay() { return startEpochDay; }
+    public int getDurationInDays() { return durationInDays; }
+}
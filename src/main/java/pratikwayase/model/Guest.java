@@ -1,43 +1,144 @@
 package pratikwayase.model;
 
+import pratikwayase.logging.EventLog;
 import pratikwayase.Observer.Observer;
 import java.util.*;
 
 import pratikwayase.enums.*;
 import pratikwayase.Observer.*;
 import pratikwayase.events.*;
+import pratikwayase.util.EpochDays;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 public class Guest extends User implements Observer<BookingConfirmationEvent> {
-    
-    private final List<RoomBooking> bookings = Collections.synchronizedList(new ArrayList<>());
+
+    // Reservation number -> booking for O(1) lookup and removal, plus the same bookings ordered by
+    // start day for date queries. Reads are lock-free and iteration is weakly consistent; the second
+    // index is updated inside the first one's compute, so adds and removes of a booking never interleave.
+    private final ConcurrentMap<String, RoomBooking> bookingsByReservation = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<StayKey, RoomBooking> bookingsByStart = new ConcurrentSkipListMap<>();
+    // Longest stay ever added; bounds how far back a date-range query has to look
+    private final AtomicInteger longestStay = new AtomicInteger();
 
     public Guest(String id, String name, String email, String phone) {
         super(id, name, email, phone, AccountType.GUEST);
     }
 
+    // A copy in start-day order, safe to keep and iterate while bookings change
     public List<RoomBooking> getBookings() {
-        return Collections.unmodifiableList(bookings);
+        return new ArrayList<>(bookingsByStart.values());
+    }
+
+    public int getBookingCount() {
+        return bookingsByReservation.size();
+    }
+
+    public RoomBooking findBooking(String reservationNumber) {
+        return reservationNumber == null ? null : bookingsByReservation.get(reservationNumber);
     }
 
     public void addBooking(RoomBooking booking) {
-        this.bookings.add(booking);
+        bookingsByReservation.computeIfAbsent(booking.getReservationNumber(), reservationNumber -> {
+            longestStay.accumulateAndGet(booking.getDurationInDays(), Math::max);
+            bookingsByStart.put(new StayKey(booking), booking);
+            return booking;
+        });
     }
 
     public void removeBooking(RoomBooking booking) {
-        this.bookings.remove(booking);
+        bookingsByReservation.computeIfPresent(booking.getReservationNumber(), (reservationNumber, current) -> {
+            if (current != booking) {
+                return current;
+            }
+            bookingsByStart.remove(new StayKey(booking));
+            return null;
+        });
+    }
+
+    // Stays not over yet, the one in progress included, soonest start first
+    public List<RoomBooking> getUpcomingStays() {
+        return getStaysBetween(EpochDays.today(), Long.MAX_VALUE);
+    }
+
+    // Stays with at least one night in [fromEpochDay, toEpochDay), in start-day order
+    public List<RoomBooking> getStaysBetween(long fromEpochDay, long toEpochDay) {
+        List<RoomBooking> result = new ArrayList<>();
+        if (fromEpochDay >= toEpochDay) {
+            return result;
+        }
+        for (RoomBooking booking : bookingsByStart.subMap(StayKey.first(fromEpochDay - longestStay.get() + 1), StayKey.first(toEpochDay)).values()) {
+            if (booking.getEndEpochDay() > fromEpochDay) {
+                result.add(booking);
+            }
+        }
+        return result;
     }
 
     @Override
     public void update(BookingConfirmationEvent event) { // Updated to receive BookingConfirmationEvent
-        System.out.println("Notification for Guest: " + getName() + ": " + event.getMessage() +
-                " (Booking Ref: " + event.getReservationNumber() +
-                ", Room: " + event.getRoomNumber() + ")");
+        EventLog.info("Notification for Guest: {}: {} (Booking Ref: {}, Room: {})",
+                getName(), event.getMessage(), event.getReservationNumber(), event.getRoomNumber());
+    }
+
+    @Override
+    public void updateAll(List<BookingConfirmationEvent> events) {
+        if (events.size() == 1) {
+            update(events.get(0));
+            return;
+        }
+        StringBuilder references = new StringBuilder();
+        for (BookingConfirmationEvent event : events) {
+            if (references.length() > 0) {
+                references.append(", ");
+            }
+            references.append(event.getReservationNumber()).append(" (Room ").append(event.getRoomNumber()).append(')');
+        }
+        EventLog.info("Notification for Guest: {}: {} booking updates: {}", getName(), events.size(), references);
     }
 
     @Override
     public void displayInfo() {
-        System.out.println("Guest Name: " + getName() + ", Email: " + getEmail() + ", Account Status: " + getAccountStatus());
+        EventLog.info("Guest Name: {}, Email: {}, Account Status: {}", getName(), getEmail(), getAccountStatus());
+    }
+
+    private static final class StayKey implements Comparable<StayKey> {
+        private final long startEpochDay;
+        private final String reservationNumber;
+
+        StayKey(RoomBooking booking) {
+            this(booking.getStartEpochDay(), booking.getReservationNumber());
+        }
+
+        private StayKey(long startEpochDay, String reservationNumber) {
+            this.startEpochDay = startEpochDay;
+            this.reservationNumber = reservationNumber;
+        }
+
+        // Sorts before every stay starting on the given day
+        static StayKey first(long startEpochDay) {
+            return new StayKey(startEpochDay, "");
+        }
+
+        @Override
+        public int compareTo(StayKey other) {
+            int byDay = Long.compare(startEpochDay, other.startEpochDay);
+            return byDay != 0 ? byDay : reservationNumber.compareTo(other.reservationNumber);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof StayKey && compareTo((StayKey) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(startEpochDay) * 31 + reservationNumber.hashCode();
+        }
     }
 }
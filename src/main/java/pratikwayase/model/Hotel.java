@@ -1,5 +1,6 @@
 package pratikwayase.model;
 
+import pratikwayase.logging.EventLog;
 import java.util.*;
 import java.util.concurrent.*;
 import  pratikwayase.exceptions.InvalidBookingException;
@@ -10,26 +11,92 @@ import  pratikwayase.exceptions.RoomNotAvailableException;
 import  pratikwayase.exceptions.InvalidBookingException;
 import  pratikwayase.strategy.SearchStrategy;
 import  pratikwayase.Observer.SystemNotifier;
+import  pratikwayase.Observer.NotificationDispatcher;
 import  pratikwayase.events.BookingConfirmationEvent;
+import  pratikwayase.events.BookingStatusEvent;
+import  pratikwayase.cache.SearchResultCache;
+import  pratikwayase.Observer.Observer;
+import  pratikwayase.index.RoomQuery;
+import  pratikwayase.util.EpochDays;
+import  pratikwayase.metrics.HotelMetrics;
+import  pratikwayase.pricing.PricingEngine;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
+/**
+ * A hotel's rooms are split into shards by room-number hash. Single-room operations are routed
+ * to the room's shard; searches ask every shard and merge the answers in the order rooms were
+ * added, so results are the same whatever the shard count. Reservation numbers stay in one
+ * concurrent map, which keeps them unique hotel-wide and findable without knowing the room.
+ */
 public class Hotel {
     private final String name;
-    private final ConcurrentMap<String, Room> rooms = new ConcurrentHashMap<>();
-    public final List<RoomBooking> bookings = Collections.synchronizedList(new ArrayList<>());
+    private final HotelShard[] shards;
+    private final RoomRegistry registry = new RoomRegistry();
+    // Reservation number -> booking; putIfAbsent is what makes reservation numbers unique
+    private final ConcurrentMap<String, RoomBooking> bookingsByReservation = new ConcurrentHashMap<>();
+    public final Collection<RoomBooking> bookings = Collections.unmodifiableCollection(bookingsByReservation.values());
     private final ConcurrentMap<String, User> users = new ConcurrentHashMap<>();
-  
+    private final SystemNotifier<BookingStatusEvent> statusNotifier = new SystemNotifier<>();
+    // Guest notifications leave the booking thread; a slow channel only delays its own guest
+    private final NotificationDispatcher<BookingConfirmationEvent> guestNotifications;
+    // Quotes new bookings when set; without one a stay costs the room's list price per night
+    private volatile PricingEngine pricingEngine;
 
     public Hotel(String name) {
+        this(name, new NotificationDispatcher<>());
+    }
+
+    public Hotel(String name, NotificationDispatcher<BookingConfirmationEvent> guestNotifications) {
+        this(name, guestNotifications, Runtime.getRuntime().availableProcessors());
+    }
+
+    public Hotel(String name, int shardCount) {
+        this(name, new NotificationDispatcher<>(), shardCount);
+    }
+
+    public Hotel(String name, NotificationDispatcher<BookingConfirmationEvent> guestNotifications, int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive.");
+        }
         this.name = name;
+        this.guestNotifications = guestNotifications;
+        this.shards = new HotelShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new HotelShard();
+        }
     }
 
 
-    public void addRoom(Room room) {
-        rooms.put(room.getRoomNumber(), room);
+    public void addRoom(Room room) throws InvalidBookingException {
+        addRooms(List.of(room));
+    }
+
+    /**
+     * Adds a block of rooms with one registration per shard instead of one per room. Rooms
+     * already in the hotel are skipped; a different room with a number already taken is refused
+     * before any room of the block is added.
+     */
+    public void addRooms(Collection<Room> rooms) throws InvalidBookingException {
+        List<Room> added = registry.addAll(rooms);
+        if (added.size() == 1) {
+            shardFor(added.get(0).getRoomNumber()).addRooms(added, statusNotifier);
+            return;
+        }
+        List<List<Room>> byShard = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            byShard.add(new ArrayList<>());
+        }
+        for (Room room : added) {
+            byShard.get(shardIndex(room.getRoomNumber())).add(room);
+        }
+        for (int i = 0; i < shards.length; i++) {
+            if (!byShard.get(i).isEmpty()) {
+                shards[i].addRooms(byShard.get(i), statusNotifier);
+            }
+        }
     }
 
     public void addUser(User user) {
@@ -43,30 +110,149 @@ public class Hotel {
 
 
     public Room findRoomByNumber(String roomNumber) {
-        return rooms.get(roomNumber);
+        return roomNumber == null ? null : registry.find(roomNumber);
+    }
+
+    // Every room in the order it was added
+    public List<Room> getRooms() {
+        return registry.getAll();
+    }
+
+    public int getRoomCount() {
+        return registry.size();
     }
 
 
     public RoomBooking findBookingByReservationNumber(String reservationNumber) {
-        synchronized (bookings) {
-            return bookings.stream()
-                    .filter(b -> b.getReservationNumber().equals(reservationNumber))
-                    .findFirst()
-                    .orElse(null);
+        if (reservationNumber == null) {
+            return null;
         }
+        return bookingsByReservation.get(reservationNumber);
     }
 
 
     public List<Room> searchRooms(SearchStrategy strategy, RoomStyle style, Date startDate, int duration) {
-        return strategy.searchRooms(new ArrayList<>(rooms.values()), style, startDate, duration);
+        if (startDate == null) {
+            return new ArrayList<>();
+        }
+        return searchRooms(strategy, style, EpochDays.of(startDate), duration);
+    }
+
+    public List<Room> searchRooms(SearchStrategy strategy, RoomStyle style, long startEpochDay, int duration) {
+        long started = HotelMetrics.start();
+        try {
+            List<List<Room>> parts = new ArrayList<>(shards.length);
+            for (HotelShard shard : shards) {
+                parts.add(shard.search(strategy, style, startEpochDay, duration));
+            }
+            return merge(parts, inRegistrationOrder(), Integer.MAX_VALUE);
+        } finally {
+            HotelMetrics.record(HotelMetrics.Operation.SEARCH_ROOMS, started);
+        }
+    }
+
+    // Each shard answers the query up to the end of the requested page; the page is cut from the merged answers
+    public List<Room> searchRooms(RoomQuery query) {
+        long started = HotelMetrics.start();
+        try {
+            RoomQuery throughPage = query.throughPage();
+            List<List<Room>> parts = new ArrayList<>(shards.length);
+            for (HotelShard shard : shards) {
+                parts.add(shard.search(throughPage));
+            }
+            Comparator<Room> order = inRegistrationOrder();
+            if (query.getSortOrder() != RoomQuery.SortOrder.NONE) {
+                order = Comparator.comparingDouble(Room::getBookingPrice).thenComparing(order);
+                if (query.getSortOrder() == RoomQuery.SortOrder.PRICE_DESCENDING) {
+                    order = order.reversed();
+                }
+            }
+            List<Room> merged = merge(parts, order, throughPage.getLimit());
+            int offset = Math.min(query.getOffset(), merged.size());
+            return new ArrayList<>(merged.subList(offset, merged.size()));
+        } finally {
+            HotelMetrics.record(HotelMetrics.Operation.SEARCH_ROOMS, started);
+        }
+    }
+
+    // Whether the availability calendars can answer a search for these nights without asking each room
+    public boolean coversStay(long startEpochDay, int nights) {
+        return shards[0].covers(startEpochDay, nights);
+    }
+
+    public int getShardCount() {
+        return shards.length;
     }
 
 
     public RoomBooking createBooking(String reservationNumber, String roomNumber, String guestId, Date startDate, int durationInDays)
             throws RoomNotAvailableException, InvalidBookingException {
+        return createBooking(reservationNumber, roomNumber, guestId, RoomBooking.startDayOf(startDate), durationInDays);
+    }
+
+    public RoomBooking createBooking(String reservationNumber, String roomNumber, String guestId, long startEpochDay, int durationInDays)
+            throws RoomNotAvailableException, InvalidBookingException {
+        long started = HotelMetrics.start();
+        try {
+            RoomBooking booking = newBooking(reservationNumber, roomNumber, guestId, startEpochDay, durationInDays);
+            Room room = booking.getRoom();
+            // checks and holds the dates atomically, throws if taken; the number is claimed only once the dates are held
+            room.reserve(booking, this::claim);
+            addToGuest(booking);
+
+            EventLog.info("Booking created: {} for {}", booking.getReservationNumber(), room.getRoomNumber());
+            return booking;
+        } finally {
+            HotelMetrics.record(HotelMetrics.Operation.CREATE_BOOKING, started);
+        }
+    }
+
+    /**
+     * Books a block of stays all-or-nothing. Every request is validated before anything is held,
+     * then all rooms are reserved in one ordered lock acquisition; if any stay is taken, none of
+     * the batch is created.
+     */
+    public List<RoomBooking> createBookings(List<BookingRequest> requests)
+            throws RoomNotAvailableException, InvalidBookingException {
+        if (requests == null || requests.isEmpty()) {
+            throw new InvalidBookingException("Batch cannot be empty.");
+        }
+        List<RoomBooking> batch = new ArrayList<>(requests.size());
+        Set<String> reservationNumbers = new HashSet<>();
+        for (BookingRequest request : requests) {
+            if (!reservationNumbers.add(request.getReservationNumber())) {
+                throw new InvalidBookingException("Reservation number " + request.getReservationNumber() + " appears twice in the batch.");
+            }
+            batch.add(newBooking(request.getReservationNumber(), request.getRoomNumber(), request.getGuestId(),
+                    request.getStartEpochDay(), request.getDurationInDays()));
+        }
+
+        Room.reserveAll(batch, this::claim, booking -> bookingsByReservation.remove(booking.getReservationNumber(), booking));
+        for (RoomBooking booking : batch) {
+            addToGuest(booking);
+        }
+
+        EventLog.info("Batch of {} bookings created, starting with {}", batch.size(), batch.get(0).getReservationNumber());
+        return batch;
+    }
 
+    // Runs under the room's lock once the stay is known to be free: the booking becomes findable by its number
+    private boolean claim(RoomBooking booking) {
+        return bookingsByReservation.putIfAbsent(booking.getReservationNumber(), booking) == null;
+    }
+
+    // A booking is findable before its guest lists it, so someone may have cancelled it already; then it must not stay listed
+    private void addToGuest(RoomBooking booking) {
+        booking.getGuest().addBooking(booking);
+        if (!booking.getStatus().holdsRoom()) {
+            booking.getGuest().removeBooking(booking);
+        }
+    }
+
+    private RoomBooking newBooking(String reservationNumber, String roomNumber, String guestId, long startEpochDay, int durationInDays)
+            throws InvalidBookingException {
         // Input validation (basic checks before acquiring locks)
-        if (startDate == null || startDate.before(new Date(System.currentTimeMillis() - 86400000))) {
+        if (startEpochDay < EpochDays.today()) {
             throw new InvalidBookingException("Start date cannot be in the past.");
         }
         if (durationInDays <= 0) {
@@ -76,7 +262,7 @@ public class Hotel {
             throw new InvalidBookingException("Reservation number cannot be empty.");
         }
 
-        Room room = rooms.get(roomNumber);
+        Room room = findRoomByNumber(roomNumber);
         if (room == null) {
             throw new InvalidBookingException("Room " + roomNumber + " not found.");
         }
@@ -87,58 +273,165 @@ public class Hotel {
         }
         Guest guest = (Guest) user;
 
-        if (!room.isRoomAvailable(startDate, durationInDays)) {
-            throw new RoomNotAvailableException("Room " + roomNumber + " is not available for the requested dates.");
+        PricingEngine pricing = pricingEngine;
+        if (pricing == null) {
+            return new RoomBooking(reservationNumber, room, guest, startEpochDay, durationInDays);
         }
+        return new RoomBooking(reservationNumber, room, guest, startEpochDay, durationInDays,
+                pricing.quote(room, startEpochDay, durationInDays));
+    }
 
-        RoomBooking booking = new RoomBooking(reservationNumber, room, guest, startDate, durationInDays);
 
-        synchronized (bookings) {
-            bookings.add(booking);
+    public void confirmBooking(RoomBooking booking) {
+        long started = HotelMetrics.start();
+        try {
+            if (confirm(booking)) {
+                EventLog.info("Booking {} confirmed.", booking.getReservationNumber());
+            } else {
+                EventLog.warn("Could not confirm booking: {}. Status: {}", booking != null ? booking.getReservationNumber() : "null", booking != null ? booking.getStatus() : "N/A");
+            }
+        } finally {
+            HotelMetrics.record(HotelMetrics.Operation.CONFIRM_BOOKING, started);
         }
-        room.addBooking(booking);
-        guest.addBooking(booking); // The guest object adds the booking to its own list
+    }
 
-        System.out.println("Booking created: " + booking.getReservationNumber() + " for " + room.getRoomNumber());
-        return booking;
+    // Confirms a batch with one log line and hands each guest its confirmations as a single delivery
+    public void confirmBookings(List<RoomBooking> batch) {
+        Map<Guest, List<BookingConfirmationEvent>> byGuest = new LinkedHashMap<>();
+        for (RoomBooking booking : batch) {
+            if (booking != null && booking.tryTransitionTo(BookingStatus.CONFIRMED) != null) {
+                byGuest.computeIfAbsent(booking.getGuest(), g -> new ArrayList<>()).add(confirmationOf(booking));
+            } else {
+                EventLog.warn("Could not confirm booking: {}. Status: {}", booking != null ? booking.getReservationNumber() : "null", booking != null ? booking.getStatus() : "N/A");
+            }
+        }
+        int confirmed = 0;
+        for (Map.Entry<Guest, List<BookingConfirmationEvent>> entry : byGuest.entrySet()) {
+            guestNotifications.dispatchAll(entry.getKey(), entry.getValue());
+            confirmed += entry.getValue().size();
+        }
+        EventLog.info("Confirmed {} of {} bookings in batch.", confirmed, batch.size());
     }
 
+    private boolean confirm(RoomBooking booking) {
+        if (booking == null || booking.tryTransitionTo(BookingStatus.CONFIRMED) == null) {
+            return false;
+        }
 
-    public void confirmBooking(RoomBooking booking) {
-        if (booking != null && booking.getStatus() == BookingStatus.PENDING) {
-            booking.setStatus(BookingStatus.CONFIRMED);
-            System.out.println("Booking " + booking.getReservationNumber() + " confirmed.");
+        // Notify ONLY THE GUEST WHO MADE THE BOOKING
+        guestNotifications.dispatch(booking.getGuest(), confirmationOf(booking));
+        return true;
+    }
 
-            // Notify ONLY THE GUEST WHO MADE THE BOOKING
-            booking.getGuest().update(new BookingConfirmationEvent(
-                    "Your booking " + booking.getReservationNumber() + " has been confirmed!",
-                    booking.getReservationNumber(),
-                    booking.getRoom().getRoomNumber()
-            ));
-        } else {
-            System.out.println("Could not confirm booking: " + (booking != null ? booking.getReservationNumber() : "null") + ". Status: " + (booking != null ? booking.getStatus() : "N/A"));
-        }
+    private static BookingConfirmationEvent confirmationOf(RoomBooking booking) {
+        return new BookingConfirmationEvent(
+                "Your booking " + booking.getReservationNumber() + " has been confirmed!",
+                booking.getReservationNumber(),
+                booking.getRoom().getRoomNumber()
+        );
     }
 
   
     public void cancelBooking(RoomBooking booking) {
-        if (booking != null && (booking.getStatus() == BookingStatus.PENDING || booking.getStatus() == BookingStatus.CONFIRMED)) {
-            booking.setStatus(BookingStatus.CANCELLED);
-            booking.getRoom().removeBooking(booking);
-            booking.getGuest().removeBooking(booking);
-            synchronized (bookings) {
-                bookings.remove(booking);
+        long started = HotelMetrics.start();
+        try {
+            // only the caller that wins the transition undoes the booking, so racing cancels and confirms stay consistent
+            if (booking != null && booking.tryTransitionTo(BookingStatus.CANCELLED) != null) {
+                release(booking);
+                EventLog.info("Booking {} cancelled.", booking.getReservationNumber());
+
+                // Notify ONLY THE GUEST WHOSE BOOKING WAS CANCELLED
+                guestNotifications.dispatch(booking.getGuest(), new BookingConfirmationEvent(
+                        "Your booking " + booking.getReservationNumber() + " has been cancelled.",
+                        booking.getReservationNumber(),
+                        booking.getRoom().getRoomNumber()
+                ));
+            } else {
+                EventLog.warn("Could not cancel booking: {}. Status: {}", booking != null ? booking.getReservationNumber() : "null", booking != null ? booking.getStatus() : "N/A");
             }
-            System.out.println("Booking " + booking.getReservationNumber() + " cancelled.");
+        } finally {
+            HotelMetrics.record(HotelMetrics.Operation.CANCEL_BOOKING, started);
+        }
+    }
+
+    /**
+     * Gives up a hold nobody confirmed in time: a booking still PENDING becomes ABANDONED and its
+     * nights are released. Returns false when a confirmation or cancellation got there first.
+     */
+    public boolean expireHold(RoomBooking booking) {
+        if (booking.getStatus() != BookingStatus.PENDING || !booking.compareAndSetStatus(BookingStatus.PENDING, BookingStatus.ABANDONED)) {
+            return false;
+        }
+        release(booking);
+        EventLog.info("Booking {} abandoned, its hold expired.", booking.getReservationNumber());
+        guestNotifications.dispatch(booking.getGuest(), new BookingConfirmationEvent(
+                "Your booking " + booking.getReservationNumber() + " has expired unconfirmed.",
+                booking.getReservationNumber(),
+                booking.getRoom().getRoomNumber()
+        ));
+        return true;
+    }
+
+    // Undoes a booking that left the holding statuses, once, by whoever won that transition
+    private void release(RoomBooking booking) {
+        booking.getRoom().removeBooking(booking);
+        booking.getGuest().removeBooking(booking);
+        bookingsByReservation.remove(booking.getReservationNumber(), booking);
+    }
+
+    // Observers run after the room is unlocked, in the order of its changes, before the change returns; they must be quick
+    public void addBookingObserver(Observer<BookingStatusEvent> observer) {
+        statusNotifier.addObserver(observer);
+    }
+
+    public void removeBookingObserver(Observer<BookingStatusEvent> observer) {
+        statusNotifier.removeObserver(observer);
+    }
+
+    /**
+     * Puts back a booking recovered from persistent state, skipping date validation, the
+     * availability check and guest notifications. Replays are idempotent: a reservation number
+     * that is already present is left alone.
+     */
+    public RoomBooking restoreBooking(String reservationNumber, String roomNumber, String guestId,
+                                      long startEpochDay, int durationInDays, BookingStatus status) {
+        RoomBooking existing = bookingsByReservation.get(reservationNumber);
+        if (existing != null) {
+            return existing;
+        }
+        Room room = findRoomByNumber(roomNumber);
+        User user = users.get(guestId);
+        if (room == null || !(user instanceof Guest)) {
+            throw new InvalidBookingException("Cannot restore " + reservationNumber + ": unknown room or guest.");
+        }
+        Guest guest = (Guest) user;
+        RoomBooking booking = RoomBooking.restore(reservationNumber, room, guest, startEpochDay, durationInDays, status);
+        bookingsByReservation.put(reservationNumber, booking);
+        room.addBooking(booking);
+        guest.addBooking(booking);
+        if (status == BookingStatus.CHECKED_IN) {
+            room.checkIn();
+        }
+        return booking;
+    }
 
-            // Notify ONLY THE GUEST WHOSE BOOKING WAS CANCELLED
-            booking.getGuest().update(new BookingConfirmationEvent(
-                    "Your booking " + booking.getReservationNumber() + " has been cancelled.",
-                    booking.getReservationNumber(),
-                    booking.getRoom().getRoomNumber()
-            ));
-        } else {
-            System.out.println("Could not cancel booking: " + (booking != null ? booking.getReservationNumber() : "null") + ". Status: " + (booking != null ? booking.getStatus() : "N/A"));
+    /**
+     * Applies a recovered status change with the same side effects as the live operation, minus
+     * notifications. The transition table is not consulted: a journal replayed over a snapshot
+     * may repeat changes the snapshot already shows, and the last record for a booking wins.
+     */
+    public void restoreStatus(String reservationNumber, BookingStatus status) {
+        RoomBooking booking = bookingsByReservation.get(reservationNumber);
+        if (booking == null || booking.getStatus() == status) {
+            return;
+        }
+        booking.restoreStatus(status);
+        if (status == BookingStatus.CHECKED_IN) {
+            booking.getRoom().checkIn();
+        } else if (status == BookingStatus.CHECKED_OUT) {
+            booking.getRoom().checkOut();
+        } else if (!status.holdsRoom()) {
+            release(booking);
         }
     }
 
@@ -146,4 +439,61 @@ public class Hotel {
         return name;
     }
 
+    public void setPricingEngine(PricingEngine pricingEngine) {
+        this.pricingEngine = pricingEngine;
+    }
+
+    public PricingEngine getPricingEngine() {
+        return pricingEngine;
+    }
+
+    public NotificationDispatcher<BookingConfirmationEvent> getNotificationDispatcher() {
+        return guestNotifications;
+    }
+
+    public List<SearchResultCache> getSearchCaches() {
+        List<SearchResultCache> caches = new ArrayList<>(shards.length);
+        for (HotelShard shard : shards) {
+            caches.add(shard.getSearchCache());
+        }
+        return caches;
+    }
+
+    private HotelShard shardFor(String roomNumber) {
+        return shards[shardIndex(roomNumber)];
+    }
+
+    private int shardIndex(String roomNumber) {
+        int h = roomNumber.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), shards.length);
+    }
+
+    private static Comparator<Room> inRegistrationOrder() {
+        return Comparator.comparingInt(Room::getRegistryId);
+    }
+
+    // K-way merge of lists that are each already in the given order, stopping after limit rooms
+    private static List<Room> merge(List<List<Room>> parts, Comparator<Room> order, int limit) {
+        if (parts.size() == 1) {
+            List<Room> only = parts.get(0);
+            return only.size() <= limit ? only : new ArrayList<>(only.subList(0, limit));
+        }
+        int[] positions = new int[parts.size()];
+        List<Room> merged = new ArrayList<>();
+        while (merged.size() < limit) {
+            int next = -1;
+            for (int i = 0; i < positions.length; i++) {
+                if (positions[i] < parts.get(i).size() && (next < 0
+                        || order.compare(parts.get(i).get(positions[i]), parts.get(next).get(positions[next])) < 0)) {
+                    next = i;
+                }
+            }
+            if (next < 0) {
+                break;
+            }
+            merged.add(parts.get(next).get(positions[next]++));
+        }
+        return merged;
+    }
+
 }
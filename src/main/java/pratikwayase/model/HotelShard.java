@@ -0,0 +1,75 @@
+package pratikwayase.model;
+
+import pratikwayase.Observer.SystemNotifier;
+import pratikwayase.cache.SearchResultCache;
+import pratikwayase.enums.RoomStyle;
+import pratikwayase.events.BookingStatusEvent;
+import pratikwayase.events.RoomOccupancyEvent;
+import pratikwayase.events.RoomStatusEvent;
+import pratikwayase.index.AvailabilityCalendar;
+import pratikwayase.index.RoomQuery;
+import pratikwayase.strategy.RoomAvailabilitySearchStrategy;
+import pratikwayase.strategy.RoomStyleSearchStrategy;
+import pratikwayase.strategy.SearchStrategy;
+
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * One partition of a hotel's rooms with its own availability calendar, search cache and
+ * notifiers, so bookings in different shards never touch the same index or lock. Room lookup
+ * by number is the hotel's {@link RoomRegistry}.
+ */
+final class HotelShard {
+    private final SystemNotifier<RoomOccupancyEvent> occupancyNotifier = new SystemNotifier<>();
+    private final SystemNotifier<RoomStatusEvent> roomStatusNotifier = new SystemNotifier<>();
+    private final AvailabilityCalendar availabilityCalendar = new AvailabilityCalendar();
+    private final SearchResultCache searchCache = new SearchResultCache();
+
+    HotelShard() {
+        occupancyNotifier.addObserver(availabilityCalendar);
+        occupancyNotifier.addObserver(searchCache); // after the calendar, so a re-run search sees the change
+        roomStatusNotifier.addObserver(searchCache::onRoomStatusChanged);
+    }
+
+    // Registers the rooms in one pass over the calendar and drops the cached searches of their styles once
+    void addRooms(List<Room> added, SystemNotifier<BookingStatusEvent> statusNotifier) {
+        EnumSet<RoomStyle> styles = EnumSet.noneOf(RoomStyle.class);
+        for (Room room : added) {
+            room.attachNotifiers(occupancyNotifier, statusNotifier, roomStatusNotifier);
+            styles.add(room.getStyle());
+        }
+        availabilityCalendar.registerAll(added); // after attaching, so no booking slips between the scan and the events
+        for (RoomStyle style : styles) {
+            searchCache.invalidate(style);
+        }
+    }
+
+    // Repeated searches are served from the cache until a booking or check-in touches their dates
+    List<Room> search(SearchStrategy strategy, RoomStyle style, long startEpochDay, int duration) {
+        if (!isCacheable(strategy)) {
+            return strategy.searchRooms(availabilityCalendar, style, startEpochDay, duration);
+        }
+        return searchCache.search(strategy.getClass(), style, startEpochDay, duration,
+                () -> strategy.searchRooms(availabilityCalendar, style, startEpochDay, duration));
+    }
+
+    // Only the built-in strategies are known to be stateless and to filter by the style they are given,
+    // which the cache key and its invalidation rely on; subclasses and other strategies search every time
+    private static boolean isCacheable(SearchStrategy strategy) {
+        Class<?> type = strategy.getClass();
+        return type == RoomAvailabilitySearchStrategy.class || type == RoomStyleSearchStrategy.class;
+    }
+
+    List<Room> search(RoomQuery query) {
+        return availabilityCalendar.find(query);
+    }
+
+    boolean covers(long startEpochDay, int nights) {
+        return availabilityCalendar.covers(startEpochDay, nights);
+    }
+
+    SearchResultCache getSearchCache() {
+        return searchCache;
+    }
+}
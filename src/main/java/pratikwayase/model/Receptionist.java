@@ -1,8 +1,10 @@
 package pratikwayase.model;
 
 
+import pratikwayase.logging.EventLog;
 import pratikwayase.enums.AccountType;
 import pratikwayase.enums.BookingStatus;
+import pratikwayase.exceptions.BookingStateException;
 
 public class Receptionist extends User {
     public Receptionist(String id, String name, String email, String phone) {
@@ -11,27 +13,28 @@ public class Receptionist extends User {
 
     @Override
     public void displayInfo() {
-        System.out.println("Receptionist Name: " + getName() + ", Email: " + getEmail());
+        EventLog.info("Receptionist Name: {}, Email: {}", getName(), getEmail());
     }
 
 
-    public void checkInGuest(RoomBooking booking) {
+    // The booking's transition comes first, so a guest whose booking was cancelled meanwhile never occupies the room
+    public void checkInGuest(RoomBooking booking) throws BookingStateException {
         if (booking != null && booking.getRoom() != null) {
-            booking.getRoom().checkIn(); // Room's checkIn method handles its own lock
             booking.setStatus(BookingStatus.CHECKED_IN);
-            System.out.println("Guest checked in for booking " + booking.getReservationNumber());
+            booking.getRoom().checkIn(); // Room's checkIn method handles its own lock
+            EventLog.info("Guest checked in for booking {}", booking.getReservationNumber());
         } else {
-            System.out.println("Error: Cannot check in. Booking or associated room is null.");
+            EventLog.error("Cannot check in. Booking or associated room is null.");
         }
     }
 
-    public void checkOutGuest(RoomBooking booking) {
+    public void checkOutGuest(RoomBooking booking) throws BookingStateException {
         if (booking != null && booking.getRoom() != null) {
-            booking.getRoom().checkOut(); // Room's checkOut method handles its own lock
             booking.setStatus(BookingStatus.CHECKED_OUT);
-            System.out.println("Guest checked out for booking " + booking.getReservationNumber());
+            booking.getRoom().checkOut(); // Room's checkOut method handles its own lock
+            EventLog.info("Guest checked out for booking {}", booking.getReservationNumber());
         } else {
-            System.out.println("Error: Cannot check out. Booking or associated room is null.");
+            EventLog.error("Cannot check out. Booking or associated room is null.");
         }
     }
 }
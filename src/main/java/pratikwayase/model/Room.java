@@ -1,11 +1,22 @@
 package pratikwayase.model;
 
+import pratikwayase.logging.EventLog;
 import pratikwayase.enums.RoomStatus;
 import  pratikwayase.enums.RoomStyle;
 import  pratikwayase.exceptions.InvalidBookingException;
+import  pratikwayase.exceptions.RoomNotAvailableException;
 import java.util.*;
-import java.util.concurrent.locks.ReentrantLock;
-import  pratikwayase.enums.BookingStatus;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import pratikwayase.index.IntervalIndex;
+import pratikwayase.Observer.SystemNotifier;
+import pratikwayase.events.RoomOccupancyEvent;
+import pratikwayase.events.BookingStatusEvent;
+import pratikwayase.events.RoomStatusEvent;
+import pratikwayase.enums.BookingStatus;
+import pratikwayase.metrics.HotelMetrics;
+import pratikwayase.util.EpochDays;
 
 
 public class Room {
@@ -14,8 +25,20 @@ public class Room {
     private volatile RoomStatus status; 
     private final double bookingPrice;
     private final boolean isSmoking;
+    // Eager on purpose: callers read this public field without null checks, and an empty ArrayList shares
+    // the JDK's empty array until its first add, so an idle room pays only the two list headers (~48 B)
     public final List<RoomBooking> bookings = Collections.synchronizedList(new ArrayList<>());
-    private final ReentrantLock lock = new ReentrantLock(); 
+    // Stays whose status holds the room, keyed by [startEpochDay, endEpochDay), guarded by the
+    // room's stripe of RoomLocks: writers take its write lock, availability checks read optimistically
+    private final IntervalIndex<RoomBooking> occupancy = new IntervalIndex<>();
+    // Set by the owning hotel; told about every change to the occupancy index
+    private volatile SystemNotifier<RoomOccupancyEvent> occupancyNotifier;
+    // Set by the owning hotel; told about every booking reserved here and every later status change
+    private volatile SystemNotifier<BookingStatusEvent> statusNotifier;
+    // Set by the owning hotel; told when check-in or check-out changes the room's status
+    private volatile SystemNotifier<RoomStatusEvent> roomStatusNotifier;
+    // Dense ID given by the owning hotel's registry, in the order rooms were added
+    private int registryId = -1;
 
     public Room(String roomNumber, RoomStyle style, double bookingPrice, boolean isSmoking)
             throws InvalidBookingException {
@@ -34,10 +57,19 @@ public class Room {
         this.status = RoomStatus.AVAILABLE;
     }
 
+    // Rebuilds a room read back from storage in the status it was saved with, no check-in or observers involved
+    public static Room restore(String roomNumber, RoomStyle style, double bookingPrice, boolean isSmoking,
+                               RoomStatus status) throws InvalidBookingException {
+        Room room = new Room(roomNumber, style, bookingPrice, isSmoking);
+        room.status = status;
+        return room;
+    }
+
     public String getRoomNumber() { return roomNumber; }
     public RoomStyle getStyle() { return style; }
     public RoomStatus getStatus() { return status; }
     public double getBookingPrice() { return bookingPrice; }
+    public boolean isSmoking() { return isSmoking; }
 
 
     public boolean isRoomAvailable(Date checkInDate, int durationInDays) {
@@ -45,85 +77,302 @@ public class Room {
         if (checkInDate == null || durationInDays <= 0) {
             return false;
         }
+        return isRoomAvailable(EpochDays.of(checkInDate), durationInDays);
+    }
+
+    public boolean isRoomAvailable(long startEpochDay, int durationInDays) {
+        if (durationInDays <= 0) {
+            return false;
+        }
+        long started = HotelMetrics.startSampled();
+        try {
+            boolean available = status == RoomStatus.AVAILABLE && !isBooked(startEpochDay, durationInDays);
+            if (!available) {
+                HotelMetrics.countFailedAvailabilityCheck();
+            }
+            return available;
+        } finally {
+            HotelMetrics.record(HotelMetrics.Operation.IS_ROOM_AVAILABLE, started);
+        }
+    }
+
+    // Whether any stay holding the room overlaps the given nights, regardless of the room's status
+    public boolean isBooked(long startEpochDay, int durationInDays) {
+        long endEpochDay = startEpochDay + durationInDays;
+
+        StampedLock lock = RoomLocks.of(this);
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            boolean booked = occupancy.overlaps(startEpochDay, endEpochDay);
+            if (lock.validate(stamp)) {
+                return booked;
+            }
+        }
+        stamp = readLock(lock); // a writer got in between, fall back to a real read
+        try {
+            return occupancy.overlaps(startEpochDay, endEpochDay);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
 
-        lock.lock(); // Acquire the lock for this room
+    /**
+     * Checks availability and records the booking in one step, so two callers can never both
+     * hold the same room-night.
+     */
+    public void reserve(RoomBooking booking) throws RoomNotAvailableException {
+        reserve(booking, b -> true);
+    }
+
+    // Also claims the booking, under the lock once its nights are known to be free, so it cannot be found before it holds them
+    void reserve(RoomBooking booking, Predicate<RoomBooking> claim) throws RoomNotAvailableException {
+        int stripe = RoomLocks.stripeOf(this);
+        long stamp = writeLock(RoomLocks.at(stripe));
         try {
-       
-            if (status != RoomStatus.AVAILABLE) {
-                return false;
+            if (!isFree(booking.getStartEpochDay(), booking.getEndEpochDay())) {
+                HotelMetrics.countUnavailableRoom();
+                throw new RoomNotAvailableException("Room " + roomNumber + " is not available for the requested dates.");
+            }
+            if (!claim.test(booking)) {
+                throw new InvalidBookingException("Reservation number " + booking.getReservationNumber() + " already exists.");
             }
+            list(booking);
+            if (booking.getStatus().holdsRoom()) {
+                occupy(booking);
+            }
+            publishStatus(booking, null);
+        } finally {
+            RoomLocks.unlockWrite(stripe, stamp);
+        }
+    }
+
 
-   
-            Calendar requestedEnd = Calendar.getInstance();
-            requestedEnd.setTime(checkInDate);
-            requestedEnd.add(Calendar.DAY_OF_MONTH, durationInDays);
-
-            synchronized (bookings) {
-                for (RoomBooking booking : bookings) {
-                   
-                    if (booking.getStatus() == BookingStatus.CONFIRMED ||
-                            booking.getStatus() == BookingStatus.CHECKED_IN) {
-
-                        // Calculate the end date for the existing booking
-                        Calendar existingBookingEnd = Calendar.getInstance();
-                        existingBookingEnd.setTime(booking.getStartDate());
-                        existingBookingEnd.add(Calendar.DAY_OF_MONTH, booking.getDurationInDays());
-
-                      
-                        if (checkInDate.before(existingBookingEnd.getTime()) &&
-                                booking.getStartDate().before(requestedEnd.getTime())) {
-                            return false; 
-                        }
+    /**
+     * Reserves every booking of a batch or none of them. The stripes of the rooms involved are
+     * write-locked in stripe order, so batches sharing rooms cannot deadlock, and nothing is
+     * published to observers until every stay has been checked and the stripes are unlocked.
+     * The bookings are claimed only once every stay is known to be free, and unclaimed again if
+     * any claim fails.
+     */
+    static void reserveAll(List<RoomBooking> batch, Predicate<RoomBooking> claim, Consumer<RoomBooking> unclaim)
+            throws RoomNotAvailableException {
+        Room[] rooms = new Room[batch.size()];
+        for (int i = 0; i < rooms.length; i++) {
+            rooms[i] = batch.get(i).getRoom();
+        }
+        int[] stripes = RoomLocks.orderedStripes(rooms);
+        long[] stamps = new long[stripes.length];
+        long[] queued = new long[stripes.length];
+        int locked = 0;
+        try {
+            for (; locked < stripes.length; locked++) {
+                stamps[locked] = writeLock(RoomLocks.at(stripes[locked]));
+            }
+            int inserted = 0;
+            int claimed = 0;
+            try {
+                // later stays of the batch are checked against the earlier ones already inserted
+                for (; inserted < batch.size(); inserted++) {
+                    RoomBooking booking = batch.get(inserted);
+                    Room room = booking.getRoom();
+                    if (!room.isFree(booking.getStartEpochDay(), booking.getEndEpochDay())) {
+                        HotelMetrics.countUnavailableRoom();
+                        throw new RoomNotAvailableException("Room " + room.roomNumber + " is not available for the requested dates"
+                                + " (reservation " + booking.getReservationNumber() + ").");
+                    }
+                    room.occupancy.insert(booking, booking.getStartEpochDay(), booking.getEndEpochDay());
+                }
+                for (; claimed < batch.size(); claimed++) {
+                    RoomBooking booking = batch.get(claimed);
+                    if (!claim.test(booking)) {
+                        throw new InvalidBookingException("Reservation number " + booking.getReservationNumber() + " already exists.");
                     }
                 }
+            } catch (RoomNotAvailableException | InvalidBookingException e) {
+                for (int i = claimed - 1; i >= 0; i--) {
+                    unclaim.accept(batch.get(i));
+                }
+                for (int i = inserted - 1; i >= 0; i--) {
+                    RoomBooking booking = batch.get(i);
+                    booking.getRoom().occupancy.remove(booking, booking.getStartEpochDay());
+                }
+                throw e;
+            }
+            for (RoomBooking booking : batch) {
+                Room room = booking.getRoom();
+                room.list(booking);
+                room.publishOccupancy(booking, true);
+                room.publishStatus(booking, null);
             }
-            return true; 
         } finally {
-            lock.unlock(); 
+            for (int i = locked - 1; i >= 0; i--) {
+                queued[i] = RoomLocks.queued(stripes[i]);
+                RoomLocks.at(stripes[i]).unlockWrite(stamps[i]);
+            }
+        }
+        for (int i = 0; i < stripes.length; i++) {
+            RoomLocks.publish(stripes[i], queued[i]);
         }
     }
 
 
     public void checkIn() {
-        lock.lock();
+        int stripe = RoomLocks.stripeOf(this);
+        long stamp = writeLock(RoomLocks.at(stripe));
         try {
-            this.status = RoomStatus.OCCUPIED;
-            System.out.println("Room " + roomNumber + " checked in.");
+            changeStatus(RoomStatus.OCCUPIED);
         } finally {
-            lock.unlock();
+            RoomLocks.unlockWrite(stripe, stamp);
         }
+        EventLog.info("Room {} checked in.", roomNumber);
     }
 
     public void checkOut() {
-        lock.lock();
+        int stripe = RoomLocks.stripeOf(this);
+        long stamp = writeLock(RoomLocks.at(stripe));
         try {
-            this.status = RoomStatus.AVAILABLE;
-            System.out.println("Room " + roomNumber + " checked out.");
+            changeStatus(RoomStatus.AVAILABLE);
         } finally {
-            lock.unlock();
+            RoomLocks.unlockWrite(stripe, stamp);
         }
+        EventLog.info("Room {} checked out.", roomNumber);
     }
 
 
     public void addBooking(RoomBooking booking) {
-        lock.lock();
+        int stripe = RoomLocks.stripeOf(this);
+        long stamp = writeLock(RoomLocks.at(stripe));
         try {
-            this.bookings.add(booking);
+            list(booking);
+            if (booking.getStatus().holdsRoom()) {
+                occupy(booking);
+            }
         } finally {
-            lock.unlock();
+            RoomLocks.unlockWrite(stripe, stamp);
         }
     }
 
 
     public void removeBooking(RoomBooking booking) {
-        lock.lock();
+        int stripe = RoomLocks.stripeOf(this);
+        long stamp = writeLock(RoomLocks.at(stripe));
         try {
-            this.bookings.remove(booking);
+            if (this.bookings.remove(booking)) {
+                booking.listed = false;
+                release(booking);
+            }
+        } finally {
+            RoomLocks.unlockWrite(stripe, stamp);
+        }
+    }
+
+    // Called by RoomBooking.setStatus so the occupancy index follows status changes
+    void onBookingStatusChanged(RoomBooking booking, BookingStatus previousStatus) {
+        int stripe = RoomLocks.stripeOf(this);
+        long stamp = writeLock(RoomLocks.at(stripe));
+        try {
+            boolean indexed = occupancy.contains(booking, booking.getStartEpochDay());
+            if (booking.getStatus().holdsRoom()) {
+                if (!indexed && booking.listed) {
+                    occupy(booking);
+                }
+            } else if (indexed) {
+                release(booking);
+            }
+            publishStatus(booking, previousStatus);
         } finally {
-            lock.unlock();
+            RoomLocks.unlockWrite(stripe, stamp);
+        }
+    }
+
+    void attachNotifiers(SystemNotifier<RoomOccupancyEvent> occupancyNotifier,
+                         SystemNotifier<BookingStatusEvent> statusNotifier,
+                         SystemNotifier<RoomStatusEvent> roomStatusNotifier) {
+        this.occupancyNotifier = occupancyNotifier;
+        this.statusNotifier = statusNotifier;
+        this.roomStatusNotifier = roomStatusNotifier;
+    }
+
+    int getRegistryId() {
+        return registryId;
+    }
+
+    void setRegistryId(int registryId) {
+        this.registryId = registryId;
+    }
+
+    // Acquisitions that have to wait are timed; the uncontended path costs one extra CAS attempt
+    private static long writeLock(StampedLock lock) {
+        long stamp = lock.tryWriteLock();
+        if (stamp != 0) {
+            return stamp;
+        }
+        long started = System.nanoTime();
+        stamp = lock.writeLock();
+        HotelMetrics.recordRoomLockWait(System.nanoTime() - started);
+        return stamp;
+    }
+
+    private static long readLock(StampedLock lock) {
+        long stamp = lock.tryReadLock();
+        if (stamp != 0) {
+            return stamp;
+        }
+        long started = System.nanoTime();
+        stamp = lock.readLock();
+        HotelMetrics.recordRoomLockWait(System.nanoTime() - started);
+        return stamp;
+    }
+
+    // Runs under the write lock, after the status is visible to readers
+    private void changeStatus(RoomStatus status) {
+        RoomStatus previousStatus = this.status;
+        this.status = status;
+        SystemNotifier<RoomStatusEvent> notifier = roomStatusNotifier;
+        if (notifier != null && previousStatus != status) {
+            RoomStatusEvent event = new RoomStatusEvent(this, previousStatus, status);
+            RoomLocks.defer(RoomLocks.stripeOf(this), () -> notifier.notifyObservers(event));
+        }
+    }
+
+    // The publish helpers run under the write lock and queue their events in the order the
+    // changes happened; observers get them once the lock is released
+    private void publishStatus(RoomBooking booking, BookingStatus previousStatus) {
+        SystemNotifier<BookingStatusEvent> notifier = statusNotifier;
+        if (notifier != null) {
+            BookingStatusEvent event = new BookingStatusEvent(booking, previousStatus, booking.getStatus());
+            RoomLocks.defer(RoomLocks.stripeOf(this), () -> notifier.notifyObservers(event));
         }
     }
 
+    private void list(RoomBooking booking) {
+        bookings.add(booking);
+        booking.listed = true;
+    }
+
+    private void occupy(RoomBooking booking) {
+        occupancy.insert(booking, booking.getStartEpochDay(), booking.getEndEpochDay());
+        publishOccupancy(booking, true);
+    }
+
+    private void release(RoomBooking booking) {
+        if (occupancy.remove(booking, booking.getStartEpochDay())) {
+            publishOccupancy(booking, false);
+        }
+    }
+
+    private void publishOccupancy(RoomBooking booking, boolean occupied) {
+        SystemNotifier<RoomOccupancyEvent> notifier = occupancyNotifier;
+        if (notifier != null) {
+            RoomOccupancyEvent event = new RoomOccupancyEvent(this, booking, occupied);
+            RoomLocks.defer(RoomLocks.stripeOf(this), () -> notifier.notifyObservers(event));
+        }
+    }
+
+    private boolean isFree(long startEpochDay, long endEpochDay) {
+        return status == RoomStatus.AVAILABLE && !occupancy.overlaps(startEpochDay, endEpochDay);
+    }
+
     @Override
     public String toString() {
         return "Room{" +
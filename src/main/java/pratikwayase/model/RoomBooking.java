@@ -2,20 +2,52 @@ package pratikwayase.model;
 
 
 import pratikwayase.enums.BookingStatus;
+import pratikwayase.exceptions.BookingStateException;
 import  pratikwayase.exceptions.InvalidBookingException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.*;
+import pratikwayase.metrics.HotelMetrics;
+import pratikwayase.util.EpochDays;
 
 
 
 public class RoomBooking {
+    private static final VarHandle STATUS;
+
+    static {
+        try {
+            STATUS = MethodHandles.lookup().findVarHandle(RoomBooking.class, "status", BookingStatus.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private final String reservationNumber;
-    private final Date startDate;
+    private final long startEpochDay;
     private final int durationInDays;
-    private volatile BookingStatus status; 
+    private volatile BookingStatus status; // changed only by compare-and-set along BookingStatus's transitions
     private final Room room;
     private final Guest guest; 
     private final double totalPrice; 
+    boolean listed; // on its room's bookings list, guarded by the room's stripe lock
+    private static final double LIST_PRICE = Double.NaN; // price the stay at the room's list price
     public RoomBooking(String reservationNumber, Room room, Guest guest, Date startDate, int durationInDays) throws InvalidBookingException {
+        this(reservationNumber, room, guest, startDayOf(startDate), durationInDays, LIST_PRICE, true);
+    }
+
+    public RoomBooking(String reservationNumber, Room room, Guest guest, long startEpochDay, int durationInDays) throws InvalidBookingException {
+        this(reservationNumber, room, guest, startEpochDay, durationInDays, LIST_PRICE, true);
+    }
+
+    // Books at a quoted total, e.g. from a pricing engine, instead of the room's list price per night
+    public RoomBooking(String reservationNumber, Room room, Guest guest, long startEpochDay, int durationInDays,
+                       double totalPrice) throws InvalidBookingException {
+        this(reservationNumber, room, guest, startEpochDay, durationInDays, totalPrice, true);
+    }
+
+    private RoomBooking(String reservationNumber, Room room, Guest guest, long startEpochDay, int durationInDays,
+                        double totalPrice, boolean rejectPastDates) throws InvalidBookingException {
         if (reservationNumber == null || reservationNumber.trim().isEmpty()) {
             throw new InvalidBookingException("Reservation number cannot be empty.");
         }
@@ -26,20 +58,43 @@ public class RoomBooking {
             throw new InvalidBookingException("Guest cannot be null for a booking.");
         }
        
-        if (startDate == null || startDate.before(new Date(System.currentTimeMillis() - 86400000))) { // -86400000 ms = 1 day to allow current day
+        if (rejectPastDates && startEpochDay < EpochDays.today()) { // today is still bookable
             throw new InvalidBookingException("Start date cannot be in the past.");
         }
         if (durationInDays <= 0) {
             throw new InvalidBookingException("Duration must be positive.");
         }
+        if (totalPrice < 0) {
+            throw new InvalidBookingException("Total price cannot be negative.");
+        }
 
         this.reservationNumber = reservationNumber;
         this.room = room;
         this.guest = guest;
-        this.startDate = new Date(startDate.getTime()); 
+        this.startEpochDay = startEpochDay;
         this.durationInDays = durationInDays;
         this.status = BookingStatus.PENDING;
-        this.totalPrice = room.getBookingPrice() * durationInDays; 
+        this.totalPrice = Double.isNaN(totalPrice) ? room.getBookingPrice() * durationInDays : totalPrice;
+    }
+
+    static long startDayOf(Date startDate) throws InvalidBookingException {
+        if (startDate == null) {
+            throw new InvalidBookingException("Start date cannot be empty.");
+        }
+        return EpochDays.of(startDate);
+    }
+
+    // Rebuilds a booking read back from a journal or snapshot; stays that have started are allowed
+    public static RoomBooking restore(String reservationNumber, Room room, Guest guest, long startEpochDay,
+                                      int durationInDays, BookingStatus status) throws InvalidBookingException {
+        return restore(reservationNumber, room, guest, startEpochDay, durationInDays, status, LIST_PRICE);
+    }
+
+    public static RoomBooking restore(String reservationNumber, Room room, Guest guest, long startEpochDay,
+                                      int durationInDays, BookingStatus status, double totalPrice) throws InvalidBookingException {
+        RoomBooking booking = new RoomBooking(reservationNumber, room, guest, startEpochDay, durationInDays, totalPrice, false);
+        booking.status = status;
+        return booking;
     }
 
     public String getReservationNumber() { return reservationNumber; }
@@ -49,12 +104,56 @@ public class RoomBooking {
     public BookingStatus getStatus() { return status; }
     public double getTotalPrice() { return totalPrice; }
 
+    public long getStartEpochDay() { return startEpochDay; }
+    public long getEndEpochDay() { return startEpochDay + durationInDays; }
+
+    // Converts on every call; internal code works on getStartEpochDay
     public Date getStartDate() {
-        return new Date(startDate.getTime());
+        return EpochDays.toDate(startEpochDay);
+    }
+
+    /**
+     * Moves the booking to {@code status} if the transition table allows it from the current
+     * status. Of two racing changes only one wins; the loser, like any change the table refuses,
+     * is counted and gets a {@link BookingStateException}.
+     */
+    public void setStatus(BookingStatus status) throws BookingStateException {
+        if (tryTransitionTo(status) == null) {
+            throw new BookingStateException("Booking " + reservationNumber + " cannot move from " + this.status + " to " + status + ".");
+        }
     }
 
-    public void setStatus(BookingStatus status) {
-        this.status = status;
+    // Returns the status it moved from, or null, counted as a rejection, when the table does not allow the change
+    public BookingStatus tryTransitionTo(BookingStatus next) {
+        BookingStatus current = status;
+        while (current.canTransitionTo(next)) {
+            BookingStatus witness = (BookingStatus) STATUS.compareAndExchange(this, current, next);
+            if (witness == current) {
+                room.onBookingStatusChanged(this, current);
+                return current;
+            }
+            current = witness; // lost to a concurrent change, retry if the table still allows it
+        }
+        HotelMetrics.countRejectedTransition(next);
+        return null;
+    }
+
+    // Moves from exactly the expected status; false, counted as a rejection, if the status was anything else
+    public boolean compareAndSetStatus(BookingStatus expected, BookingStatus next) {
+        if (expected.canTransitionTo(next) && STATUS.compareAndSet(this, expected, next)) {
+            room.onBookingStatusChanged(this, expected);
+            return true;
+        }
+        HotelMetrics.countRejectedTransition(next);
+        return false;
+    }
+
+    // Recovery only: sets a status read back from persistent state, whatever the table says about the current one
+    void restoreStatus(BookingStatus next) {
+        BookingStatus previous = (BookingStatus) STATUS.getAndSet(this, next);
+        if (previous != next) {
+            room.onBookingStatusChanged(this, previous);
+        }
     }
 
     @Override
@@ -63,7 +162,7 @@ public class RoomBooking {
                 "reservationNumber='" + reservationNumber + '\'' +
                 ", room=" + (room != null ? room.getRoomNumber() : "N/A") +
                 ", guest=" + (guest != null ? guest.getName() : "N/A") +
-                ", startDate=" + startDate +
+                ", startDate=" + EpochDays.toLocalDate(startEpochDay) +
                 ", durationInDays=" + durationInDays +
                 ", status=" + status +
                 ", totalPrice=" + totalPrice +
@@ -0,0 +1,143 @@
+package pratikwayase.model;
+
+import pratikwayase.logging.EventLog;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * The locks guarding rooms: a fixed array of {@link StampedLock}s shared by every room, picked
+ * by the room number's hash, instead of one lock object per room. Availability checks stay
+ * optimistic reads; a write to any room of a stripe only sends them to the read-lock fallback.
+ * <p>
+ * Stripe locks are not reentrant, so code holding one must not lock another room. Operations
+ * on several rooms lock their distinct stripes in ascending index order, which keeps any two of
+ * them from deadlocking. The stripe count is {@code -Dhotel.lockStripes} rounded up to a power
+ * of two, by default 16 per available processor.
+ * <p>
+ * Observers never run under a stripe lock. A writer {@link #defer}s its notifications, and
+ * {@link #unlockWrite} delivers them after releasing the lock, in the order they were queued,
+ * so events for one room still arrive in the order its changes happened. One thread at a time
+ * delivers a stripe's queue; a writer whose notifications another thread is delivering waits for
+ * them before returning. Observers therefore must not block on another room writer, and an
+ * observer that throws is logged rather than failing the writer that happens to deliver.
+ */
+final class RoomLocks {
+    static final int STRIPES = stripeCount(Integer.getInteger("hotel.lockStripes",
+            Runtime.getRuntime().availableProcessors() * 16));
+
+    private static final Stripe[] STRIPE_TABLE = new Stripe[STRIPES];
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            STRIPE_TABLE[i] = new Stripe();
+        }
+    }
+
+    private RoomLocks() {
+    }
+
+    static StampedLock of(Room room) {
+        return STRIPE_TABLE[stripeOf(room)].lock;
+    }
+
+    static StampedLock at(int stripe) {
+        return STRIPE_TABLE[stripe].lock;
+    }
+
+    // String hashes are cached, so this is a field read and a mix
+    static int stripeOf(Room room) {
+        int h = room.getRoomNumber().hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+
+    // The distinct stripes of the rooms, ascending: the order every multi-room operation locks them in
+    static int[] orderedStripes(Room[] rooms) {
+        int[] stripes = new int[rooms.length];
+        for (int i = 0; i < rooms.length; i++) {
+            stripes[i] = stripeOf(rooms[i]);
+        }
+        Arrays.sort(stripes);
+        int distinct = 0;
+        for (int i = 0; i < stripes.length; i++) {
+            if (i == 0 || stripes[i] != stripes[i - 1]) {
+                stripes[distinct++] = stripes[i];
+            }
+        }
+        return Arrays.copyOf(stripes, distinct);
+    }
+
+    // Runs under the stripe's write lock: queues a notification for delivery once the lock is released
+    static void defer(int stripe, Runnable notification) {
+        Stripe s = STRIPE_TABLE[stripe];
+        s.outbox.add(notification);
+        s.queued++;
+    }
+
+    // Runs under the stripe's write lock: how many notifications the stripe has queued so far
+    static long queued(int stripe) {
+        return STRIPE_TABLE[stripe].queued;
+    }
+
+    // Releases the stripe's write lock, then delivers everything queued under it
+    static void unlockWrite(int stripe, long stamp) {
+        Stripe s = STRIPE_TABLE[stripe];
+        long queued = s.queued;
+        s.lock.unlockWrite(stamp);
+        publish(stripe, queued);
+    }
+
+    // Returns once the stripe's first {@code upTo} notifications have been delivered, delivering them if no one else is
+    static void publish(int stripe, long upTo) {
+        Stripe s = STRIPE_TABLE[stripe];
+        Thread current = Thread.currentThread();
+        while (s.published.get() < upTo) {
+            Thread publisher = s.publisher.get();
+            if (publisher == current) {
+                return; // an observer changed a room of the stripe being delivered, the loop below gets to it
+            }
+            if (publisher == null && s.publisher.compareAndSet(null, current)) {
+                try {
+                    s.drain();
+                } finally {
+                    s.publisher.set(null);
+                }
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    private static int stripeCount(int requested) {
+        if (requested <= 0 || requested > 1 << 16) {
+            throw new IllegalArgumentException("Lock stripe count must be between 1 and 65536.");
+        }
+        return requested == 1 ? 1 : Integer.highestOneBit(requested - 1) << 1;
+    }
+
+    private static final class Stripe {
+        final StampedLock lock = new StampedLock();
+        final Queue<Runnable> outbox = new ConcurrentLinkedQueue<>();
+        final AtomicLong published = new AtomicLong();
+        final AtomicReference<Thread> publisher = new AtomicReference<>();
+        long queued; // guarded by the write lock
+
+        // Only the thread holding {@code publisher} drains
+        void drain() {
+            Runnable notification;
+            while ((notification = outbox.poll()) != null) {
+                try {
+                    notification.run();
+                } catch (RuntimeException e) {
+                    EventLog.error("Room observer failed: {}", e.toString());
+                } finally {
+                    published.lazySet(published.get() + 1);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package pratikwayase.model;
+
+import pratikwayase.exceptions.InvalidBookingException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A hotel's rooms under dense integer IDs handed out in registration order. Rooms sit in one
+ * array indexed by ID, and room numbers map to IDs through an open-addressing table of ints,
+ * so a room costs two array slots instead of a map entry, a boxed key and a boxed value in
+ * each of two hash maps. Registration is serialized; lookups take no lock.
+ */
+final class RoomRegistry {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private volatile Room[] rooms = new Room[INITIAL_CAPACITY];
+    private volatile int size;
+    // ID + 1 at the slot of each room number, 0 where empty; at most half full, probed linearly
+    private volatile AtomicIntegerArray index = new AtomicIntegerArray(INITIAL_CAPACITY * 2);
+
+    Room find(String roomNumber) {
+        AtomicIntegerArray table = index;
+        int mask = table.length() - 1;
+        for (int slot = slotOf(roomNumber, mask); ; slot = (slot + 1) & mask) {
+            int entry = table.get(slot);
+            if (entry == 0) {
+                return null;
+            }
+            Room room = rooms[entry - 1]; // read after the entry, so the array already holds the room
+            if (room.getRoomNumber().equals(roomNumber)) {
+                return room;
+            }
+        }
+    }
+
+    /**
+     * Gives every new room the next ID and returns the rooms that were not registered before, in
+     * order. A room already registered is skipped; a different room with a taken number is
+     * refused before any room of the batch is registered.
+     */
+    synchronized List<Room> addAll(Collection<Room> batch) throws InvalidBookingException {
+        List<Room> added = new ArrayList<>(batch.size());
+        Map<String, Room> pending = new HashMap<>();
+        for (Room room : batch) {
+            Room existing = find(room.getRoomNumber());
+            if (existing == null) {
+                existing = pending.putIfAbsent(room.getRoomNumber(), room);
+                if (existing == null) {
+                    added.add(room);
+                    continue;
+                }
+            }
+            if (existing != room) {
+                throw new InvalidBookingException("Room " + room.getRoomNumber() + " already exists.");
+            }
+        }
+        if (added.isEmpty()) {
+            return added;
+        }
+
+        int newSize = size + added.size();
+        Room[] all = rooms;
+        if (newSize > all.length) {
+            all = Arrays.copyOf(all, Math.max(newSize, all.length * 2));
+        }
+        AtomicIntegerArray table = index;
+        if (newSize * 2 > table.length()) {
+            table = rehash(all, size, Integer.highestOneBit(newSize * 2) * 2);
+        }
+        int mask = table.length() - 1;
+        for (Room room : added) {
+            int id = size;
+            room.setRegistryId(id);
+            all[id] = room;
+            rooms = all; // publishes the slot before the ID becomes reachable below
+            int slot = slotOf(room.getRoomNumber(), mask);
+            while (table.get(slot) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table.set(slot, id + 1);
+            size = id + 1;
+        }
+        index = table;
+        return added;
+    }
+
+    // Every room in registration order
+    List<Room> getAll() {
+        int count = size;
+        return new ArrayList<>(Arrays.asList(rooms).subList(0, count));
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static AtomicIntegerArray rehash(Room[] all, int count, int capacity) {
+        AtomicIntegerArray table = new AtomicIntegerArray(capacity);
+        int mask = capacity - 1;
+        for (int id = 0; id < count; id++) {
+            int slot = slotOf(all[id].getRoomNumber(), mask);
+            while (table.get(slot) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table.set(slot, id + 1);
+        }
+        return table;
+    }
+
+    private static int slotOf(String roomNumber, int mask) {
+        int h = roomNumber.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
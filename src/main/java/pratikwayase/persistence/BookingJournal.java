@@ -0,0 +1,440 @@
+package pratikwayase.persistence;
+
+import pratikwayase.enums.BookingStatus;
+import pratikwayase.model.RoomBooking;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of booking commands in memory-mapped segment files.
+ * <p>
+ * Appends copy the record into the mapped segment under a short lock and return its sequence
+ * number; nothing is forced to disk on that path, not even when a segment fills up, as full
+ * segments are handed to the flusher. The flusher forces the retired segments and the current one
+ * once per flush window, so one fsync covers every record appended in that window (group commit).
+ * Callers that need a record on disk wait for it with {@link #awaitDurable}. Strings are stored
+ * with a two-byte length and may not exceed 65535 bytes in UTF-8.
+ * <p>
+ * Record layout: {@code int bodyLength, int crc32(body), body}, body starting with
+ * {@code long sequence, byte type}. A zero length marks the unused tail of a segment and a bad
+ * checksum a torn write; both end replay of that segment.
+ */
+public class BookingJournal implements AutoCloseable {
+    public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    static final byte CREATE = 1;
+    static final byte STATUS = 2;
+    private static final int HEADER_SIZE = 8;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    public interface Replayer {
+        void onCreate(long sequence, String reservationNumber, String roomNumber, String guestId,
+                      long startEpochDay, int durationInDays, BookingStatus status);
+
+        void onStatus(long sequence, String reservationNumber, BookingStatus status);
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long flushWindowMillis;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    // One flush at a time, so a sequence is marked durable only once every older segment is forced
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Object durabilityMonitor = new Object();
+    private final CRC32 crc = new CRC32(); // guarded by appendLock
+    private final Thread flusher;
+
+    private FileChannel channel;      // guarded by appendLock
+    private MappedByteBuffer segment; // guarded by appendLock
+    private final List<Retired> retired = new ArrayList<>(); // guarded by appendLock, full or rolled segments not forced yet
+    private long nextSequence;        // guarded by appendLock
+    private volatile long appendedSequence;
+    private volatile long durableSequence;
+    private volatile boolean closed;
+
+    private BookingJournal(Path directory, int segmentSize, long flushWindowMillis, long lastSequence) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.flushWindowMillis = flushWindowMillis;
+        this.nextSequence = lastSequence + 1;
+        this.appendedSequence = lastSequence;
+        this.durableSequence = lastSequence;
+        openSegment();
+        this.flusher = new Thread(this::flushLoop, "booking-journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Opens the journal in {@code directory}. Existing segments are kept for {@link #replay}; new
+     * records always go to a fresh segment.
+     */
+    public static BookingJournal open(Path directory, long flushWindowMillis) throws IOException {
+        return open(directory, flushWindowMillis, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public static BookingJournal open(Path directory, long flushWindowMillis, int segmentSize) throws IOException {
+        if (flushWindowMillis <= 0) {
+            throw new IllegalArgumentException("Flush window must be positive.");
+        }
+        Files.createDirectories(directory);
+        long[] last = {0L};
+        for (Path path : segments(directory)) {
+            readSegment(path, 0L, new Replayer() {
+                @Override
+                public void onCreate(long sequence, String reservationNumber, String roomNumber, String guestId,
+                                     long startEpochDay, int durationInDays, BookingStatus status) {
+                    last[0] = Math.max(last[0], sequence);
+                }
+
+                @Override
+                public void onStatus(long sequence, String reservationNumber, BookingStatus status) {
+                    last[0] = Math.max(last[0], sequence);
+                }
+            });
+        }
+        return new BookingJournal(directory, segmentSize, flushWindowMillis, Math.max(last[0], firstSequenceOfNewest(directory) - 1));
+    }
+
+    // The status is the one the booking was created in, which a later change may already have replaced
+    public long appendCreate(RoomBooking booking, BookingStatus status) {
+        byte[] reservation = utf8(booking.getReservationNumber());
+        byte[] room = utf8(booking.getRoom().getRoomNumber());
+        byte[] guest = utf8(booking.getGuest().getId());
+        int bodyLength = 8 + 1 + (2 + reservation.length) + (2 + room.length) + (2 + guest.length) + 8 + 4 + 1;
+
+        appendLock.lock();
+        try {
+            ByteBuffer body = beginRecord(bodyLength, CREATE);
+            putString(body, reservation);
+            putString(body, room);
+            putString(body, guest);
+            body.putLong(booking.getStartEpochDay());
+            body.putInt(booking.getDurationInDays());
+            body.put((byte) status.ordinal());
+            return endRecord(body);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public long appendStatus(String reservationNumber, BookingStatus status) {
+        byte[] reservation = utf8(reservationNumber);
+        int bodyLength = 8 + 1 + (2 + reservation.length) + 1;
+
+        appendLock.lock();
+        try {
+            ByteBuffer body = beginRecord(bodyLength, STATUS);
+            putString(body, reservation);
+            body.put((byte) status.ordinal());
+            return endRecord(body);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // Replays every record with a sequence greater than afterSequence, oldest first
+    public void replay(long afterSequence, Replayer replayer) throws IOException {
+        for (Path path : segments(directory)) {
+            readSegment(path, afterSequence, replayer);
+        }
+    }
+
+    /**
+     * Starts a new segment and returns the last sequence written to the older ones, once they are
+     * forced. Everything up to that sequence can be dropped with {@link #deleteSegmentsThrough}
+     * once a snapshot covers it.
+     */
+    public long roll() throws IOException {
+        return roll(() -> { });
+    }
+
+    /**
+     * Rolls like {@link #roll()}, running {@code capture} before appends resume, so state it reads
+     * already reflects every record up to the returned sequence.
+     */
+    public long roll(Runnable capture) throws IOException {
+        long covered;
+        appendLock.lock();
+        try {
+            retireSegment();
+            covered = nextSequence - 1;
+            capture.run();
+        } finally {
+            appendLock.unlock();
+        }
+        try {
+            flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return covered;
+    }
+
+    public void deleteSegmentsThrough(long sequence) throws IOException {
+        List<Path> all = segments(directory);
+        // a segment ends right before the next one starts; the newest one is never deleted
+        for (int i = 0; i + 1 < all.size(); i++) {
+            if (firstSequence(all.get(i + 1)) - 1 <= sequence) {
+                Files.deleteIfExists(all.get(i));
+            }
+        }
+    }
+
+    public long getAppendedSequence() {
+        return appendedSequence;
+    }
+
+    public long getDurableSequence() {
+        return durableSequence;
+    }
+
+    public boolean awaitDurable(long sequence, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (durabilityMonitor) {
+            while (durableSequence < sequence) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return false;
+                }
+                durabilityMonitor.wait(remaining);
+            }
+            return true;
+        }
+    }
+
+    // Forces everything appended so far, without waiting for the flush window
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<Retired> older;
+            MappedByteBuffer current;
+            long upTo;
+            appendLock.lock();
+            try {
+                older = new ArrayList<>(retired);
+                current = segment;
+                upTo = nextSequence - 1;
+            } finally {
+                appendLock.unlock();
+            }
+            for (Retired full : older) {
+                full.forceAndClose();
+            }
+            if (!older.isEmpty()) {
+                appendLock.lock();
+                try {
+                    retired.subList(0, older.size()).clear(); // only the flush removes, and appends only add behind
+                } finally {
+                    appendLock.unlock();
+                }
+            }
+            if (upTo > durableSequence) {
+                current.force();
+                markDurable(upTo);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        flusher.interrupt();
+        try {
+            flush(); // appends see the journal closed from here on
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        appendLock.lock();
+        try {
+            channel.close();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (!closed) {
+            try {
+                Thread.sleep(flushWindowMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                flush();
+            } catch (UncheckedIOException | IllegalStateException e) {
+                // a segment failed to force or was closed by close; the next window retries
+            }
+        }
+    }
+
+    private void markDurable(long sequence) {
+        synchronized (durabilityMonitor) {
+            if (sequence > durableSequence) {
+                durableSequence = sequence;
+                durabilityMonitor.notifyAll();
+            }
+        }
+    }
+
+    private ByteBuffer beginRecord(int bodyLength, byte type) {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed.");
+        }
+        if (HEADER_SIZE + bodyLength > segmentSize) {
+            throw new IllegalArgumentException("Journal record too large: " + bodyLength + " bytes.");
+        }
+        if (segment.remaining() < HEADER_SIZE + bodyLength) {
+            try {
+                retireSegment();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        segment.putInt(bodyLength);
+        segment.putInt(0); // checksum, filled in by endRecord
+        ByteBuffer body = segment.slice(segment.position(), bodyLength);
+        body.putLong(nextSequence);
+        body.put(type);
+        return body;
+    }
+
+    private long endRecord(ByteBuffer body) {
+        int start = segment.position();
+        crc.reset();
+        crc.update(body.flip());
+        segment.putInt(start - 4, (int) crc.getValue());
+        segment.position(start + body.limit());
+        long sequence = nextSequence++;
+        appendedSequence = sequence;
+        return sequence;
+    }
+
+    // Runs under appendLock: the flusher forces and closes the full segment, appends carry on in a fresh one
+    private void retireSegment() throws IOException {
+        retired.add(new Retired(channel, segment));
+        openSegment();
+    }
+
+    private void openSegment() throws IOException {
+        Path path = directory.resolve(segmentName(nextSequence));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+
+    private static void readSegment(Path path, long afterSequence, Replayer replayer) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        CRC32 crc = new CRC32();
+        while (buffer.remaining() >= HEADER_SIZE) {
+            int bodyLength = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (bodyLength <= 0 || bodyLength > buffer.remaining()) {
+                return;
+            }
+            ByteBuffer body = buffer.slice(buffer.position(), bodyLength);
+            crc.reset();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                return; // torn write at the tail
+            }
+            buffer.position(buffer.position() + bodyLength);
+
+            long sequence = body.getLong();
+            byte type = body.get();
+            if (sequence <= afterSequence) {
+                continue;
+            }
+            String reservationNumber = getString(body);
+            if (type == CREATE) {
+                String roomNumber = getString(body);
+                String guestId = getString(body);
+                long startEpochDay = body.getLong();
+                int durationInDays = body.getInt();
+                BookingStatus status = BookingStatus.values()[body.get()];
+                replayer.onCreate(sequence, reservationNumber, roomNumber, guestId, startEpochDay, durationInDays, status);
+            } else if (type == STATUS) {
+                replayer.onStatus(sequence, reservationNumber, BookingStatus.values()[body.get()]);
+            }
+        }
+    }
+
+    private static List<Path> segments(Path directory) throws IOException {
+        List<Path> result = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(p -> {
+                String name = p.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).forEach(result::add);
+        }
+        result.sort((a, b) -> Long.compare(firstSequence(a), firstSequence(b)));
+        return result;
+    }
+
+    private static long firstSequenceOfNewest(Path directory) throws IOException {
+        List<Path> all = segments(directory);
+        return all.isEmpty() ? 1L : firstSequence(all.get(all.size() - 1));
+    }
+
+    private static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static String segmentName(long firstSequence) {
+        return String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX);
+    }
+
+    private static byte[] utf8(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Journal string too long: " + bytes.length + " bytes, at most 65535.");
+        }
+        return bytes;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        buffer.putShort((short) value.length);
+        buffer.put(value);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static final class Retired {
+        private final FileChannel channel;
+        private final MappedByteBuffer segment;
+
+        private Retired(FileChannel channel, MappedByteBuffer segment) {
+            this.channel = channel;
+            this.segment = segment;
+        }
+
+        private void forceAndClose() {
+            try {
+                segment.force();
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package pratikwayase.persistence;
+
+import pratikwayase.Observer.Observer;
+import pratikwayase.enums.BookingStatus;
+import pratikwayase.events.BookingStatusEvent;
+import pratikwayase.logging.EventLog;
+import pratikwayase.model.Hotel;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Makes a hotel's bookings survive a restart. {@link #open} restores the newest snapshot, replays
+ * the journal tail after it, and then journals every booking created or changed in the hotel.
+ * Snapshots are taken every {@code snapshotIntervalMillis} and drop the journal segments they cover.
+ * <p>
+ * Rooms and users are not persisted; the hotel must have its inventory and guests added before
+ * it is opened.
+ */
+public class HotelPersistence implements Observer<BookingStatusEvent>, AutoCloseable {
+    private final Hotel hotel;
+    private final BookingJournal journal;
+    private final SnapshotStore snapshots;
+    private final ScheduledExecutorService snapshotScheduler;
+
+    private HotelPersistence(Hotel hotel, BookingJournal journal, SnapshotStore snapshots, long snapshotIntervalMillis) {
+        this.hotel = hotel;
+        this.journal = journal;
+        this.snapshots = snapshots;
+        if (snapshotIntervalMillis > 0) {
+            snapshotScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "hotel-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            snapshotScheduler.scheduleWithFixedDelay(this::snapshotQuietly,
+                    snapshotIntervalMillis, snapshotIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            snapshotScheduler = null;
+        }
+    }
+
+    public static HotelPersistence open(Hotel hotel, Path directory, long flushWindowMillis, long snapshotIntervalMillis)
+            throws IOException {
+        SnapshotStore snapshots = new SnapshotStore(directory);
+        long covered = snapshots.loadLatest((reservationNumber, roomNumber, guestId, startEpochDay, durationInDays, status) -> {
+            if (status.holdsRoom() || status == BookingStatus.CHECKED_OUT) {
+                hotel.restoreBooking(reservationNumber, roomNumber, guestId, startEpochDay, durationInDays, status);
+            }
+        });
+
+        BookingJournal journal = BookingJournal.open(directory, flushWindowMillis);
+        journal.replay(covered, new BookingJournal.Replayer() {
+            @Override
+            public void onCreate(long sequence, String reservationNumber, String roomNumber, String guestId,
+                                 long startEpochDay, int durationInDays, BookingStatus status) {
+                if (status.holdsRoom() || status == BookingStatus.CHECKED_OUT) {
+                    hotel.restoreBooking(reservationNumber, roomNumber, guestId, startEpochDay, durationInDays, status);
+                }
+            }
+
+            @Override
+            public void onStatus(long sequence, String reservationNumber, BookingStatus status) {
+                hotel.restoreStatus(reservationNumber, status);
+            }
+        });
+
+        HotelPersistence persistence = new HotelPersistence(hotel, journal, snapshots, snapshotIntervalMillis);
+        hotel.addBookingObserver(persistence);
+        EventLog.info("Recovered {} bookings for {}", hotel.bookings.size(), hotel.getName());
+        return persistence;
+    }
+
+    @Override
+    public void update(BookingStatusEvent event) {
+        if (event.getPreviousStatus() == null) {
+            journal.appendCreate(event.getBooking(), event.getStatus());
+        } else {
+            journal.appendStatus(event.getBooking().getReservationNumber(), event.getStatus());
+        }
+    }
+
+    /**
+     * Writes a snapshot of the current bookings and drops the journal it makes redundant. The
+     * bookings and their statuses are copied while the journal rolls and holds appends, so no
+     * status is older than the records the snapshot covers. A change made but not yet journaled
+     * may be copied too; its record lands after the covered sequence and replays harmlessly.
+     */
+    public void snapshot() throws IOException {
+        SnapshotStore.Capture[] capture = new SnapshotStore.Capture[1];
+        long covered = journal.roll(() -> capture[0] = SnapshotStore.Capture.of(hotel.bookings));
+        snapshots.write(covered, capture[0]);
+        journal.deleteSegmentsThrough(covered);
+        snapshots.deleteOlderThan(covered);
+    }
+
+    public BookingJournal getJournal() {
+        return journal;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdownNow();
+        }
+        hotel.removeBookingObserver(this);
+        journal.close();
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | UncheckedIOException e) {
+            EventLog.error("Snapshot of {} failed: {}", hotel.getName(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package pratikwayase.persistence;
+
+import pratikwayase.codec.BinaryCodec;
+import pratikwayase.enums.RoomStyle;
+import pratikwayase.exceptions.InvalidBookingException;
+import pratikwayase.factory.DeluxeRoomFactory;
+import pratikwayase.factory.FamilySuiteRoomFactory;
+import pratikwayase.factory.RoomFactory;
+import pratikwayase.model.Hotel;
+import pratikwayase.model.Room;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk-loads a hotel's rooms from a CSV inventory, one {@code roomNumber,style,price,smoking}
+ * line per room, or from a file of {@link BinaryCodec} room messages. Rooms are handed to
+ * {@link Hotel#addRooms} in batches, so every shard registers a batch under one lock instead of
+ * one room at a time. Blank lines and lines starting with {@code #} are skipped.
+ */
+public class RoomInventoryLoader {
+    public static final int DEFAULT_BATCH_SIZE = 4096;
+
+    private final Hotel hotel;
+    private final int batchSize;
+    private final RoomFactory deluxeFactory = new DeluxeRoomFactory();
+    private final RoomFactory familySuiteFactory = new FamilySuiteRoomFactory();
+
+    public RoomInventoryLoader(Hotel hotel) {
+        this(hotel, DEFAULT_BATCH_SIZE);
+    }
+
+    public RoomInventoryLoader(Hotel hotel, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive.");
+        }
+        this.hotel = hotel;
+        this.batchSize = batchSize;
+    }
+
+    // Returns the number of rooms read; rooms the hotel already has are not added twice
+    public int loadCsv(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return loadCsv(reader);
+        }
+    }
+
+    public int loadCsv(Reader reader) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        List<Room> batch = new ArrayList<>(batchSize);
+        int loaded = 0;
+        int lineNumber = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            batch.add(parseRoom(line, lineNumber));
+            loaded++;
+            if (batch.size() == batchSize) {
+                flush(batch);
+            }
+        }
+        flush(batch);
+        return loaded;
+    }
+
+    // Memory-maps the file and decodes room messages until its end
+    public int loadBinary(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return loadBinary(buffer);
+        }
+    }
+
+    public int loadBinary(ByteBuffer buffer) {
+        BinaryCodec.Decoder decoder = BinaryCodec.newDecoder();
+        List<Room> batch = new ArrayList<>(batchSize);
+        int loaded = 0;
+        while (buffer.hasRemaining()) {
+            batch.add(decoder.decodeRoom(buffer));
+            loaded++;
+            if (batch.size() == batchSize) {
+                flush(batch);
+            }
+        }
+        flush(batch);
+        return loaded;
+    }
+
+    private Room parseRoom(String line, int lineNumber) throws IOException {
+        String[] fields = line.split(",", -1);
+        if (fields.length != 4) {
+            throw new IOException("Room line " + lineNumber + " needs 4 fields: " + line);
+        }
+        try {
+            RoomStyle style = RoomStyle.valueOf(fields[1].trim());
+            RoomFactory factory = style == RoomStyle.FAMILY_SUITE ? familySuiteFactory : deluxeFactory;
+            return factory.createRoom(style, fields[0].trim(), Double.parseDouble(fields[2].trim()),
+                    Boolean.parseBoolean(fields[3].trim()));
+        } catch (IllegalArgumentException | InvalidBookingException e) {
+            throw new IOException("Malformed room line " + lineNumber + ": " + line, e);
+        }
+    }
+
+    private void flush(List<Room> batch) {
+        if (!batch.isEmpty()) {
+            hotel.addRooms(batch);
+            batch.clear();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package pratikwayase.persistence;
+
+import pratikwayase.enums.BookingStatus;
+import pratikwayase.model.RoomBooking;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Compact binary snapshots of the live bookings, named after the last journal sequence they
+ * cover. A snapshot is written to a temporary file and moved into place, so a crash mid-write
+ * leaves the previous snapshot intact.
+ */
+public class SnapshotStore {
+    private static final int MAGIC = 0x484F544C; // "HOTL"
+    private static final byte VERSION = 1;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+
+    public interface Loader {
+        void onBooking(String reservationNumber, String roomNumber, String guestId,
+                       long startEpochDay, int durationInDays, BookingStatus status);
+    }
+
+    private final Path directory;
+
+    public SnapshotStore(Path directory) {
+        this.directory = directory;
+    }
+
+    // Writes the bookings with the statuses they have now
+    public void write(long sequence, Collection<RoomBooking> bookings) throws IOException {
+        write(sequence, Capture.of(bookings));
+    }
+
+    public void write(long sequence, Capture capture) throws IOException {
+        Files.createDirectories(directory);
+        Path temp = directory.resolve(fileName(sequence) + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(sequence);
+            out.writeInt(capture.bookings.length);
+            for (int i = 0; i < capture.bookings.length; i++) {
+                RoomBooking booking = capture.bookings[i];
+                out.writeUTF(booking.getReservationNumber());
+                out.writeUTF(booking.getRoom().getRoomNumber());
+                out.writeUTF(booking.getGuest().getId());
+                out.writeLong(booking.getStartEpochDay());
+                out.writeInt(booking.getDurationInDays());
+                out.writeByte(capture.statuses[i].ordinal());
+            }
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(fileName(sequence)), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Loads the newest snapshot and returns the journal sequence it covers, or 0 when there is none
+    public long loadLatest(Loader loader) throws IOException {
+        Path latest = null;
+        for (Path path : snapshots()) {
+            latest = path;
+        }
+        if (latest == null) {
+            return 0L;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(latest)))) {
+            if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+                throw new IOException("Unrecognised snapshot file " + latest);
+            }
+            long sequence = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                loader.onBooking(in.readUTF(), in.readUTF(), in.readUTF(), in.readLong(), in.readInt(),
+                        BookingStatus.values()[in.readByte()]);
+            }
+            return sequence;
+        }
+    }
+
+    public void deleteOlderThan(long sequence) throws IOException {
+        for (Path path : snapshots()) {
+            if (sequenceOf(path) < sequence) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private List<Path> snapshots() throws IOException {
+        List<Path> result = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return result;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(p -> {
+                String name = p.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }).forEach(result::add);
+        }
+        result.sort((a, b) -> Long.compare(sequenceOf(a), sequenceOf(b)));
+        return result;
+    }
+
+    private static long sequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private static String fileName(long sequence) {
+        return String.format("%s%020d%s", PREFIX, sequence, SUFFIX);
+    }
+
+    // Bookings and the statuses they had when copied, so a snapshot is not affected by later changes
+    public static final class Capture {
+        private final RoomBooking[] bookings;
+        private final BookingStatus[] statuses;
+
+        private Capture(RoomBooking[] bookings, BookingStatus[] statuses) {
+            this.bookings = bookings;
+            this.statuses = statuses;
+        }
+
+        public static Capture of(Collection<RoomBooking> live) {
+            RoomBooking[] bookings = live.toArray(new RoomBooking[0]);
+            BookingStatus[] statuses = new BookingStatus[bookings.length];
+            for (int i = 0; i < bookings.length; i++) {
+                statuses[i] = bookings[i].getStatus();
+            }
+            return new Capture(bookings, statuses);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package pratikwayase.pricing;
+
+import pratikwayase.Observer.Observer;
+import pratikwayase.enums.RoomStyle;
+import pratikwayase.events.BookingStatusEvent;
+import pratikwayase.model.Hotel;
+import pratikwayase.model.Room;
+import pratikwayase.model.RoomBooking;
+import pratikwayase.util.EpochDays;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Prices stays night by night. Each night costs the style's rate for that epoch day, or the
+ * room's list price where no rate is set, times a surge multiplier picked by how many rooms of
+ * the style are already held that night. Rates and surge tiers live in an immutable
+ * {@link RateCalendar} that updates replace copy-on-write, so quotes read one volatile field and
+ * never wait for a writer; held room-nights are counted from the hotel's booking events.
+ * <p>
+ * Only the window of {@code days} nights from {@code firstDay} is rated; nights outside it cost
+ * the list price. Like the availability calendar, the window rolls forward with the clock: once
+ * its first day has passed it starts today, past nights drop off and the new nights at its end
+ * have no rate until one is set. Room counts per style are taken when the engine is attached.
+ */
+public class PricingEngine implements Observer<BookingStatusEvent> {
+    public static final int DEFAULT_HORIZON_DAYS = 731;
+
+    private static final int STYLES = RoomStyle.values().length;
+
+    private volatile RateCalendar calendar;
+    private final int[] roomsByStyle = new int[STYLES];
+    // Bookings whose nights are in the calendar's held counts, so replays and racing events count once
+    private final ConcurrentMap<String, RoomBooking> counted = new ConcurrentHashMap<>();
+    // Shared by event updates to the held counts, exclusive to a roll that recounts them
+    private final StampedLock countLock = new StampedLock();
+    private final LongSupplier today;
+
+    public PricingEngine(long firstDay, int days) {
+        this(firstDay, days, EpochDays::today);
+    }
+
+    // The clock is a parameter so tests can move the window
+    PricingEngine(long firstDay, int days, LongSupplier today) {
+        if (days <= 0) {
+            throw new IllegalArgumentException("Pricing window must be positive.");
+        }
+        this.calendar = RateCalendar.empty(firstDay, days);
+        this.today = today;
+    }
+
+    // Prices the hotel's new bookings from now on, with surge counted from the bookings it already has
+    public static PricingEngine attach(Hotel hotel, long firstDay, int days) {
+        return attach(hotel, new PricingEngine(firstDay, days));
+    }
+
+    static PricingEngine attach(Hotel hotel, PricingEngine engine) {
+        for (Room room : hotel.getRooms()) {
+            engine.roomsByStyle[room.getStyle().ordinal()]++;
+        }
+        hotel.addBookingObserver(engine);
+        for (RoomBooking booking : hotel.bookings) {
+            engine.track(booking);
+        }
+        hotel.setPricingEngine(engine);
+        return engine;
+    }
+
+    @Override
+    public void update(BookingStatusEvent event) {
+        track(event.getBooking());
+    }
+
+    // Sets the nightly rate of a style for the nights in [fromEpochDay, toEpochDay)
+    public synchronized void setRate(RoomStyle style, long fromEpochDay, long toEpochDay, double nightlyRate) {
+        if (!(nightlyRate > 0)) {
+            throw new IllegalArgumentException("Nightly rate must be positive.");
+        }
+        rollForward();
+        updateRates(style, fromEpochDay, toEpochDay, nightlyRate);
+    }
+
+    // Goes back to the rooms' list prices for those nights
+    public synchronized void clearRate(RoomStyle style, long fromEpochDay, long toEpochDay) {
+        rollForward();
+        updateRates(style, fromEpochDay, toEpochDay, Double.NaN);
+    }
+
+    /**
+     * Replaces the surge tiers: from {@code thresholds[i]} occupancy of a style on a night (0 to 1,
+     * ascending) its nights cost {@code multipliers[i]} times the rate. No tiers means no surge.
+     */
+    public synchronized void setSurgeTiers(double[] thresholds, double[] multipliers) {
+        if (thresholds.length != multipliers.length) {
+            throw new IllegalArgumentException("Every surge threshold needs a multiplier.");
+        }
+        for (int i = 0; i < thresholds.length; i++) {
+            if (thresholds[i] < 0 || thresholds[i] > 1 || (i > 0 && thresholds[i] <= thresholds[i - 1]) || !(multipliers[i] > 0)) {
+                throw new IllegalArgumentException("Surge thresholds must ascend within [0, 1] and multipliers be positive.");
+            }
+        }
+        calendar = calendar.withSurge(thresholds, multipliers);
+    }
+
+    public double quote(Room room, long startEpochDay, int nights) {
+        RateCalendar rates = current();
+        double[] parts = new double[2];
+        priceNights(rates, room.getStyle().ordinal(), startEpochDay, nights, parts);
+        return parts[0] + parts[1] * room.getBookingPrice();
+    }
+
+    /**
+     * Totals for the same stay in every room of a search page, in page order. The nightly rates
+     * are summed once per style present, so a page costs one pass over the nights per style plus
+     * one multiply-add per room, all against one calendar version.
+     */
+    public double[] quote(List<Room> rooms, long startEpochDay, int nights) {
+        RateCalendar rates = current();
+        double[] rated = new double[STYLES];
+        double[] listFactor = new double[STYLES];
+        boolean[] priced = new boolean[STYLES];
+        double[] parts = new double[2];
+        double[] totals = new double[rooms.size()];
+        for (int i = 0; i < totals.length; i++) {
+            Room room = rooms.get(i);
+            int style = room.getStyle().ordinal();
+            if (!priced[style]) {
+                priceNights(rates, style, startEpochDay, nights, parts);
+                rated[style] = parts[0];
+                listFactor[style] = parts[1];
+                priced[style] = true;
+            }
+            totals[i] = rated[style] + listFactor[style] * room.getBookingPrice();
+        }
+        return totals;
+    }
+
+    // Share of the style's rooms held on the night, 0 outside the window or for a style with no rooms
+    public double getOccupancy(RoomStyle style, long epochDay) {
+        RateCalendar rates = current();
+        long day = epochDay - rates.firstDay;
+        int rooms = roomsByStyle[style.ordinal()];
+        if (day < 0 || day >= rates.days || rooms == 0) {
+            return 0;
+        }
+        return (double) rates.heldNights.get(style.ordinal() * rates.days + (int) day) / rooms;
+    }
+
+    /**
+     * Splits a stay's price into what the rate table fixes and what scales with the room's list
+     * price: parts[0] is the sum of surged rates over rated nights, parts[1] the sum of surge
+     * multipliers over the other nights.
+     */
+    private void priceNights(RateCalendar rates, int style, long startEpochDay, int nights, double[] parts) {
+        double[] nightly = rates.rates[style];
+        int rooms = roomsByStyle[style];
+        double rated = 0;
+        double listFactor = 0;
+        for (int n = 0; n < nights; n++) {
+            long day = startEpochDay + n - rates.firstDay;
+            if (day < 0 || day >= rates.days) {
+                listFactor += 1;
+                continue;
+            }
+            double surge = rooms == 0 ? 1.0 : rates.surge((double) rates.heldNights.get(style * rates.days + (int) day) / rooms);
+            double rate = nightly[(int) day];
+            if (Double.isNaN(rate)) {
+                listFactor += surge;
+            } else {
+                rated += rate * surge;
+            }
+        }
+        parts[0] = rated;
+        parts[1] = listFactor;
+    }
+
+    // Caller holds the monitor
+    private void updateRates(RoomStyle style, long fromEpochDay, long toEpochDay, double rate) {
+        RateCalendar rates = calendar;
+        if (fromEpochDay < rates.firstDay || toEpochDay > rates.firstDay + rates.days || fromEpochDay >= toEpochDay) {
+            throw new IllegalArgumentException("Rate range must be non-empty and inside the pricing window.");
+        }
+        calendar = rates.withRates(style, (int) (fromEpochDay - rates.firstDay), (int) (toEpochDay - rates.firstDay), rate);
+    }
+
+    // The calendar, rolled first if its first day has passed
+    private RateCalendar current() {
+        RateCalendar rates = calendar;
+        if (today.getAsLong() <= rates.firstDay) {
+            return rates;
+        }
+        synchronized (this) {
+            rollForward();
+            return calendar;
+        }
+    }
+
+    // Caller holds the monitor; recounts the held nights of the new window from the counted bookings
+    private void rollForward() {
+        long day = today.getAsLong();
+        RateCalendar rates = calendar;
+        if (day <= rates.firstDay) {
+            return;
+        }
+        long stamp = countLock.writeLock();
+        try {
+            RateCalendar rolled = rates.rolledTo(day);
+            for (RoomBooking booking : counted.values()) {
+                addNights(rolled, booking, 1);
+            }
+            calendar = rolled;
+        } finally {
+            countLock.unlockWrite(stamp);
+        }
+    }
+
+    private void track(RoomBooking booking) {
+        boolean holds = booking.getStatus().holdsRoom();
+        long stamp = countLock.readLock();
+        try {
+            String number = booking.getReservationNumber();
+            if (holds ? counted.putIfAbsent(number, booking) == null : counted.remove(number) != null) {
+                addNights(calendar, booking, holds ? 1 : -1);
+            }
+        } finally {
+            countLock.unlockRead(stamp);
+        }
+    }
+
+    private static void addNights(RateCalendar rates, RoomBooking booking, int delta) {
+        int base = booking.getRoom().getStyle().ordinal() * rates.days;
+        long first = Math.max(booking.getStartEpochDay(), rates.firstDay) - rates.firstDay;
+        long last = Math.min(booking.getEndEpochDay(), rates.firstDay + rates.days) - rates.firstDay;
+        for (long day = first; day < last; day++) {
+            rates.heldNights.addAndGet(base + (int) day, delta);
+        }
+    }
+}
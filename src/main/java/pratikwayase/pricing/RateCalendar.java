@@ -0,0 +1,77 @@
+package pratikwayase.pricing;
+
+import pratikwayase.enums.RoomStyle;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * One immutable version of a pricing engine's rates: a nightly rate per style per epoch day of
+ * the window, NaN where no rate is set, and the occupancy surge tiers. Updates build a new
+ * calendar that shares every array they do not touch. The counters of held room-nights belong
+ * to the window, so rate and surge updates share them and only a roll starts new ones.
+ */
+final class RateCalendar {
+    private static final int STYLES = RoomStyle.values().length;
+
+    final long firstDay;
+    final int days;
+    final double[][] rates; // [style][day - firstDay]
+    final double[] surgeThresholds; // ascending occupancy fractions
+    final double[] surgeMultipliers;
+    final AtomicIntegerArray heldNights; // [style * days + (day - firstDay)]
+
+    private RateCalendar(long firstDay, int days, double[][] rates, double[] surgeThresholds, double[] surgeMultipliers,
+                         AtomicIntegerArray heldNights) {
+        this.firstDay = firstDay;
+        this.days = days;
+        this.rates = rates;
+        this.surgeThresholds = surgeThresholds;
+        this.surgeMultipliers = surgeMultipliers;
+        this.heldNights = heldNights;
+    }
+
+    static RateCalendar empty(long firstDay, int days) {
+        double[][] rates = new double[STYLES][];
+        Arrays.fill(rates, unset(days)); // shared until a style gets its first rate
+        return new RateCalendar(firstDay, days, rates, new double[0], new double[0], new AtomicIntegerArray(STYLES * days));
+    }
+
+    RateCalendar withRates(RoomStyle style, int from, int to, double rate) {
+        double[][] copy = rates.clone();
+        copy[style.ordinal()] = rates[style.ordinal()].clone();
+        Arrays.fill(copy[style.ordinal()], from, to, rate);
+        return new RateCalendar(firstDay, days, copy, surgeThresholds, surgeMultipliers, heldNights);
+    }
+
+    RateCalendar withSurge(double[] thresholds, double[] multipliers) {
+        return new RateCalendar(firstDay, days, rates, thresholds.clone(), multipliers.clone(), heldNights);
+    }
+
+    // The same window moved to start on a later day: rates of past nights are dropped, new nights have none
+    // and no night is held yet
+    RateCalendar rolledTo(long newFirstDay) {
+        int shift = (int) Math.min(newFirstDay - firstDay, days);
+        double[][] rolled = new double[STYLES][];
+        for (int style = 0; style < STYLES; style++) {
+            rolled[style] = unset(days);
+            System.arraycopy(rates[style], shift, rolled[style], 0, days - shift);
+        }
+        return new RateCalendar(newFirstDay, days, rolled, surgeThresholds, surgeMultipliers, new AtomicIntegerArray(STYLES * days));
+    }
+
+    // The multiplier of the highest tier the occupancy has reached, 1 below the first tier
+    double surge(double occupancy) {
+        double multiplier = 1.0;
+        for (int i = 0; i < surgeThresholds.length && occupancy >= surgeThresholds[i]; i++) {
+            multiplier = surgeMultipliers[i];
+        }
+        return multiplier;
+    }
+
+    private static double[] unset(int days) {
+        double[] unset = new double[days];
+        Arrays.fill(unset, Double.NaN);
+        return unset;
+    }
+}
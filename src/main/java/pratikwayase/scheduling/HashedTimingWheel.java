@@ -0,0 +1,222 @@
+package pratikwayase.scheduling;
+
+import pratikwayase.logging.EventLog;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A hashed timing wheel: a ring of buckets, one per tick, each a linked list of timeouts due
+ * when the wheel next passes it. A timeout further away than one turn waits out its remaining
+ * turns in its bucket. One daemon thread advances the wheel and runs the expired tasks, so
+ * millions of timeouts cost one small node each and no thread or executor task apiece.
+ * <p>
+ * {@link #schedule} and {@link Timeout#cancel} are O(1) and never block: new timeouts are handed
+ * to the wheel thread through a lock-free queue and placed in their bucket at the next tick, and
+ * cancelled ones are unlinked there. Tasks fire up to one tick late and must be quick, as they run
+ * on the wheel thread.
+ */
+public class HashedTimingWheel implements AutoCloseable {
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    // Bounds the hand-over per tick, so a burst of new timeouts cannot stall expiry
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final Timeout[] heads; // bucket lists, touched only by the wheel thread
+    private final int mask;
+    private final long startNanos;
+    private final ConcurrentLinkedQueue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pending = new AtomicLong();
+    private final Thread worker;
+    private long tick; // wheel thread only
+    private volatile boolean closed;
+
+    public HashedTimingWheel(long tickDuration, TimeUnit unit, String threadName) {
+        this(tickDuration, unit, DEFAULT_WHEEL_SIZE, threadName);
+    }
+
+    public HashedTimingWheel(long tickDuration, TimeUnit unit, int wheelSize, String threadName) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive.");
+        }
+        if (wheelSize <= 0 || wheelSize > 1 << 20) {
+            throw new IllegalArgumentException("Wheel size must be between 1 and 1048576.");
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        int buckets = wheelSize == 1 ? 1 : Integer.highestOneBit(wheelSize - 1) << 1;
+        this.heads = new Timeout[buckets];
+        this.mask = buckets - 1;
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, threadName);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // Runs the task on the wheel thread once the delay has passed, unless the timeout is cancelled first
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (closed) {
+            throw new IllegalStateException("Timing wheel is closed.");
+        }
+        long delayNanos = Math.min(Math.max(0, unit.toNanos(delay)), Long.MAX_VALUE / 2); // far enough, without overflow
+        Timeout timeout = new Timeout(this, task, System.nanoTime() - startNanos + delayNanos);
+        pending.incrementAndGet();
+        scheduled.add(timeout);
+        return timeout;
+    }
+
+    // Timeouts scheduled and neither expired nor cancelled yet
+    public long getPendingCount() {
+        return pending.get();
+    }
+
+    // Stops the wheel thread; timeouts still pending never fire
+    @Override
+    public void close() {
+        closed = true;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (!closed) {
+            long deadline = (tick + 1) * tickNanos;
+            long now;
+            while ((now = System.nanoTime() - startNanos) < deadline) {
+                LockSupport.parkNanos(this, deadline - now);
+                if (closed) {
+                    return;
+                }
+            }
+            unlinkCancelled();
+            transferScheduled();
+            expire((int) (tick & mask), now);
+            tick++;
+        }
+    }
+
+    private void transferScheduled() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Timeout timeout = scheduled.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.isCancelled()) {
+                continue; // counted down by cancel, never linked
+            }
+            long dueTick = Math.max(timeout.deadlineNanos / tickNanos, tick); // overdue ones go in the current bucket
+            timeout.remainingRounds = (dueTick - tick) / heads.length;
+            link((int) (dueTick & mask), timeout);
+        }
+    }
+
+    private void unlinkCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket >= 0) {
+                unlink(timeout);
+            }
+        }
+    }
+
+    private void expire(int bucket, long now) {
+        Timeout timeout = heads[bucket];
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+            } else if (timeout.deadlineNanos <= now) {
+                unlink(timeout);
+                if (timeout.transition(Timeout.WAITING, Timeout.EXPIRED)) {
+                    pending.decrementAndGet();
+                    try {
+                        timeout.task.run();
+                    } catch (RuntimeException e) {
+                        EventLog.error("Timed task failed: {}", e.toString());
+                    }
+                }
+            }
+            timeout = next;
+        }
+    }
+
+    private void link(int bucket, Timeout timeout) {
+        timeout.bucket = bucket;
+        timeout.next = heads[bucket];
+        if (timeout.next != null) {
+            timeout.next.previous = timeout;
+        }
+        heads[bucket] = timeout;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.previous != null) {
+            timeout.previous.next = timeout.next;
+        } else {
+            heads[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.previous = timeout.previous;
+        }
+        timeout.previous = null;
+        timeout.next = null;
+        timeout.bucket = -1;
+    }
+
+    public static final class Timeout {
+        private static final int WAITING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+        private static final VarHandle STATE;
+
+        static {
+            try {
+                STATE = MethodHandles.lookup().findVarHandle(Timeout.class, "state", int.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private final HashedTimingWheel wheel;
+        private final Runnable task;
+        private final long deadlineNanos; // since the wheel started
+        private volatile int state;
+        // Bucket links, touched only by the wheel thread
+        private long remainingRounds;
+        private int bucket = -1;
+        private Timeout previous;
+        private Timeout next;
+
+        private Timeout(HashedTimingWheel wheel, Runnable task, long deadlineNanos) {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        // False if the task already ran or the timeout was cancelled before
+        public boolean cancel() {
+            if (!transition(WAITING, CANCELLED)) {
+                return false;
+            }
+            wheel.pending.decrementAndGet();
+            wheel.cancelled.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+
+        private boolean transition(int from, int to) {
+            return STATE.compareAndSet(this, from, to);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package pratikwayase.scheduling;
+
+import pratikwayase.Observer.Observer;
+import pratikwayase.enums.BookingStatus;
+import pratikwayase.events.BookingStatusEvent;
+import pratikwayase.model.Hotel;
+import pratikwayase.model.RoomBooking;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Abandons PENDING bookings left unconfirmed for longer than the hold timeout, releasing their
+ * room-nights. Every new hold gets a timeout on a {@link HashedTimingWheel}; a confirmation or
+ * cancellation cancels it, and one that fires moves the booking to ABANDONED through
+ * {@link Hotel#expireHold}, which loses cleanly to a confirmation racing it.
+ */
+public class HoldExpiry implements Observer<BookingStatusEvent>, AutoCloseable {
+    public static final Duration DEFAULT_TICK = Duration.ofMillis(100);
+
+    private final Hotel hotel;
+    private final long holdNanos;
+    private final HashedTimingWheel wheel;
+    private final ConcurrentMap<RoomBooking, HashedTimingWheel.Timeout> holds = new ConcurrentHashMap<>();
+
+    public HoldExpiry(Hotel hotel, Duration holdTimeout, Duration tick) {
+        if (holdTimeout.isNegative() || holdTimeout.isZero()) {
+            throw new IllegalArgumentException("Hold timeout must be positive.");
+        }
+        this.hotel = hotel;
+        this.holdNanos = holdTimeout.toNanos();
+        this.wheel = new HashedTimingWheel(tick.toNanos(), TimeUnit.NANOSECONDS, "hold-expiry");
+    }
+
+    public static HoldExpiry attach(Hotel hotel, Duration holdTimeout) {
+        return attach(hotel, holdTimeout, DEFAULT_TICK);
+    }
+
+    // Holds the hotel already has get a full timeout from now, their creation time is not known
+    public static HoldExpiry attach(Hotel hotel, Duration holdTimeout, Duration tick) {
+        HoldExpiry expiry = new HoldExpiry(hotel, holdTimeout, tick);
+        hotel.addBookingObserver(expiry);
+        for (RoomBooking booking : hotel.bookings) {
+            if (booking.getStatus() == BookingStatus.PENDING) {
+                expiry.hold(booking);
+            }
+        }
+        return expiry;
+    }
+
+    // The booking change waits for its observers, so this only enqueues or cancels a timeout
+    @Override
+    public void update(BookingStatusEvent event) {
+        if (event.getStatus() == BookingStatus.PENDING) {
+            hold(event.getBooking());
+        } else if (event.getPreviousStatus() == BookingStatus.PENDING) {
+            HashedTimingWheel.Timeout timeout = holds.remove(event.getBooking());
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        }
+    }
+
+    public long getPendingHoldCount() {
+        return wheel.getPendingCount();
+    }
+
+    @Override
+    public void close() {
+        hotel.removeBookingObserver(this);
+        wheel.close();
+    }
+
+    private void hold(RoomBooking booking) {
+        holds.computeIfAbsent(booking, b -> wheel.schedule(() -> expire(b), holdNanos, TimeUnit.NANOSECONDS));
+    }
+
+    private void expire(RoomBooking booking) {
+        holds.remove(booking);
+        hotel.expireHold(booking);
+    }
+}
@@ -0,0 +1,116 @@
+package pratikwayase.strategy;
+
+import pratikwayase.enums.RoomStyle;
+import pratikwayase.model.Hotel;
+import pratikwayase.model.Room;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a {@link SearchStrategy} over large room lists in parallel. The list is cut into
+ * partitions of {@code threshold} rooms that are searched on a fork-join pool and merged back in
+ * list order, so the result is the same as a sequential search. Lists at or below the threshold
+ * are searched on the caller's thread. With a limit, partitions are searched a pool's width at a
+ * time and the search stops at the first wave that completes the limit.
+ */
+public class ParallelSearchExecutor {
+    public static final int DEFAULT_THRESHOLD = 512;
+    public static final int NO_LIMIT = Integer.MAX_VALUE;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public ParallelSearchExecutor() {
+        this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    public ParallelSearchExecutor(ForkJoinPool pool, int threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("Threshold must be positive.");
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    public List<Room> searchRooms(SearchStrategy strategy, List<Room> rooms, RoomStyle style,
+                                  long startEpochDay, int duration, int limit) {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        if (rooms.size() <= threshold) {
+            return truncate(strategy.searchRooms(rooms, style, startEpochDay, duration), limit);
+        }
+
+        List<Callable<List<Room>>> partitions = new ArrayList<>();
+        for (int from = 0; from < rooms.size(); from += threshold) {
+            List<Room> partition = rooms.subList(from, Math.min(from + threshold, rooms.size()));
+            partitions.add(() -> strategy.searchRooms(partition, style, startEpochDay, duration));
+        }
+        int wave = limit == NO_LIMIT ? partitions.size() : Math.max(1, pool.getParallelism());
+
+        List<Room> result = new ArrayList<>();
+        for (int from = 0; from < partitions.size() && result.size() < limit; from += wave) {
+            for (List<Room> found : invokeAll(partitions.subList(from, Math.min(from + wave, partitions.size())))) {
+                result.addAll(found);
+            }
+        }
+        return truncate(result, limit);
+    }
+
+    /**
+     * Searches several hotels at once and returns the matches per hotel, in the order the hotels
+     * were given, with at most {@code limit} rooms in total. Each hotel answers from its
+     * availability calendar when the dates are inside its window and is partitioned otherwise.
+     */
+    public Map<Hotel, List<Room>> searchHotels(SearchStrategy strategy, List<Hotel> hotels, RoomStyle style,
+                                               long startEpochDay, int duration, int limit) {
+        List<Callable<List<Room>>> searches = new ArrayList<>(hotels.size());
+        for (Hotel hotel : hotels) {
+            searches.add(() -> searchHotel(strategy, hotel, style, startEpochDay, duration, limit));
+        }
+
+        Map<Hotel, List<Room>> result = new LinkedHashMap<>();
+        int remaining = limit;
+        Iterator<Hotel> hotel = hotels.iterator();
+        for (List<Room> found : invokeAll(searches)) {
+            List<Room> taken = truncate(found, Math.max(0, remaining));
+            remaining -= taken.size();
+            result.put(hotel.next(), taken);
+        }
+        return result;
+    }
+
+    private List<Room> searchHotel(SearchStrategy strategy, Hotel hotel, RoomStyle style,
+                                   long startEpochDay, int duration, int limit) {
+        if (hotel.coversStay(startEpochDay, duration)) {
+            return truncate(hotel.searchRooms(strategy, style, startEpochDay, duration), limit);
+        }
+        return searchRooms(strategy, hotel.getRooms(), style, startEpochDay, duration, limit);
+    }
+
+    private List<List<Room>> invokeAll(List<Callable<List<Room>>> tasks) {
+        List<List<Room>> results = new ArrayList<>(tasks.size());
+        try {
+            for (Future<List<Room>> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Search interrupted.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Search failed.", e.getCause());
+        }
+        return results;
+    }
+
+    private static List<Room> truncate(List<Room> rooms, int limit) {
+        return rooms.size() <= limit ? rooms : new ArrayList<>(rooms.subList(0, limit));
+    }
+}
@@ -1,18 +1,34 @@
 package pratikwayase.strategy;
 
 import pratikwayase.enums.RoomStyle;
+import pratikwayase.index.AvailabilityCalendar;
 import pratikwayase.model.Room;
+import pratikwayase.util.EpochDays;
 import java.util.*;
 
 public class RoomAvailabilitySearchStrategy implements SearchStrategy {
     @Override
     public List<Room> searchRooms(List<Room> rooms, RoomStyle style, Date startDate, int duration) {
+        if (startDate == null) {
+            return new ArrayList<>();
+        }
+        return searchRooms(rooms, style, EpochDays.of(startDate), duration);
+    }
+
+    @Override
+    public List<Room> searchRooms(List<Room> rooms, RoomStyle style, long startEpochDay, int duration) {
         List<Room> result = new ArrayList<>();
         for (Room room : rooms) {
-            if (room.isRoomAvailable(startDate, duration) && (style == null || room.getStyle() == style)) {
+            if (room.isRoomAvailable(startEpochDay, duration) && (style == null || room.getStyle() == style)) {
                 result.add(room);
             }
         }
         return result;
     }
+
+    @Override
+    public List<Room> searchRooms(AvailabilityCalendar calendar, RoomStyle style, long startEpochDay, int duration) {
+        List<Room> result = calendar.findAvailableRooms(style, startEpochDay, duration);
+        return result != null ? result : searchRooms(calendar.getRooms(), style, startEpochDay, duration);
+    }
 }
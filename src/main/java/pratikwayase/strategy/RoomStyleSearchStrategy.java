@@ -1,19 +1,38 @@
 package pratikwayase.strategy;
 
 import pratikwayase.enums.RoomStyle;
+import pratikwayase.index.AvailabilityCalendar;
 import pratikwayase.model.Room;
+import pratikwayase.util.EpochDays;
 import java.util.*;
 
 
 public class RoomStyleSearchStrategy implements SearchStrategy {
     @Override
     public List<Room> searchRooms(List<Room> rooms, RoomStyle style, Date startDate, int duration) {
+        if (startDate == null) {
+            return new ArrayList<>();
+        }
+        return searchRooms(rooms, style, EpochDays.of(startDate), duration);
+    }
+
+    @Override
+    public List<Room> searchRooms(List<Room> rooms, RoomStyle style, long startEpochDay, int duration) {
         List<Room> result = new ArrayList<>();
         for (Room room : rooms) {
-            if (room.getStyle() == style && room.isRoomAvailable(startDate, duration)) {
+            if (room.getStyle() == style && room.isRoomAvailable(startEpochDay, duration)) {
                 result.add(room);
             }
         }
         return result;
     }
+
+    @Override
+    public List<Room> searchRooms(AvailabilityCalendar calendar, RoomStyle style, long startEpochDay, int duration) {
+        if (style == null) {
+            return new ArrayList<>();
+        }
+        List<Room> result = calendar.findAvailableRooms(style, startEpochDay, duration);
+        return result != null ? result : searchRooms(calendar.getRooms(), style, startEpochDay, duration);
+    }
 }
@@ -1,11 +1,23 @@
 package pratikwayase.strategy;
 
 import pratikwayase.enums.RoomStyle;
+import pratikwayase.index.AvailabilityCalendar;
 import pratikwayase.model.Room;
+import pratikwayase.util.EpochDays;
 import java.util.*;
 
 
 
 public interface SearchStrategy {
     List<Room> searchRooms(List<Room> rooms, RoomStyle style, Date startDate, int duration);
+
+    // The hotel searches by epoch day; strategies written against Date get it converted back, the built-in ones override this
+    default List<Room> searchRooms(List<Room> rooms, RoomStyle style, long startEpochDay, int duration) {
+        return searchRooms(rooms, style, EpochDays.toDate(startEpochDay), duration);
+    }
+
+    // Strategies that can answer from the hotel's availability bitmap override this; the default checks room by room
+    default List<Room> searchRooms(AvailabilityCalendar calendar, RoomStyle style, long startEpochDay, int duration) {
+        return searchRooms(calendar.getRooms(), style, startEpochDay, duration);
+    }
 }
@@ -1,16 +1,17 @@
 package pratikwayase.template;
 
+import pratikwayase.logging.EventLog;
 import pratikwayase.model.Room;
 
 
 public abstract class RoomServiceTemplate {
     
     public final void executeService(Room room) {
-        System.out.println("\n--- Starting Service for Room " + room.getRoomNumber() + " ---");
+        EventLog.info("--- Starting Service for Room {} ---", room.getRoomNumber());
         checkServiceAvailability(); 
         performService(room);      
         addServiceCharge(room);    
-        System.out.println("--- Service Completed for Room " + room.getRoomNumber() + " ---\n");
+        EventLog.info("--- Service Completed for Room {} ---", room.getRoomNumber());
     }
 
 
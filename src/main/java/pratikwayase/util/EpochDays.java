@@ -0,0 +1,40 @@
+package pratikwayase.util;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+// Stays are stored as days since 1970-01-01; dates and time zones only appear at the API edge
+public final class EpochDays {
+
+    private EpochDays() {
+    }
+
+    public static long of(Date date) {
+        return of(date, ZoneId.systemDefault());
+    }
+
+    public static long of(Date date, ZoneId zone) {
+        return LocalDate.ofInstant(date.toInstant(), zone).toEpochDay();
+    }
+
+    public static long today() {
+        return today(ZoneId.systemDefault());
+    }
+
+    public static long today(ZoneId zone) {
+        return LocalDate.now(zone).toEpochDay();
+    }
+
+    public static LocalDate toLocalDate(long epochDay) {
+        return LocalDate.ofEpochDay(epochDay);
+    }
+
+    public static Date toDate(long epochDay) {
+        return toDate(epochDay, ZoneId.systemDefault());
+    }
+
+    public static Date toDate(long epochDay, ZoneId zone) {
+        return Date.from(LocalDate.ofEpochDay(epochDay).atStartOfDay(zone).toInstant());
+    }
+}
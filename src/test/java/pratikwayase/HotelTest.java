@@ -3,13 +3,22 @@ package pratikwayase;
 import pratikwayase.enums.BookingStatus;
 import pratikwayase.enums.RoomStyle;
 import pratikwayase.enums.RoomStatus;
+import pratikwayase.exceptions.BookingStateException;
 import pratikwayase.exceptions.InvalidBookingException;
 import pratikwayase.exceptions.RoomNotAvailableException;
 import pratikwayase.factory.DeluxeRoomFactory;
 import pratikwayase.factory.RoomFactory;
 import pratikwayase.model.*;
 import pratikwayase.command.*;
+import pratikwayase.index.RoomQuery;
+import pratikwayase.metrics.HotelMetrics;
+import pratikwayase.cache.SearchResultCache;
+import pratikwayase.util.EpochDays;
+import pratikwayase.Observer.NotificationDispatcher;
+import pratikwayase.Observer.Observer;
 import pratikwayase.strategy.RoomAvailabilitySearchStrategy;
+import pratikwayase.strategy.SearchStrategy;
+import pratikwayase.strategy.RoomStyleSearchStrategy;
 import org.junit.jupiter.api.*;
 import java.util.*;
 import java.util.concurrent.*;
@@ -191,6 +200,460 @@ class HotelTest {
     }
 
 
+    @Test
+    @DisplayName("8. Availability follows booking status and back-to-back stays")
+    void testAvailabilityIndex() throws Exception {
+        RoomBooking booking = createConfirmedBooking("RES_008", DELUXE_ROOM_NUMBER, GUEST_1_ID, futureDate, 3);
+        long start = booking.getStartEpochDay();
+
+        assertFalse(deluxeRoom.isRoomAvailable(start + 2, 1));
+        assertFalse(deluxeRoom.isRoomAvailable(start - 1, 2));
+        assertTrue(deluxeRoom.isRoomAvailable(start + 3, 2));
+        assertTrue(deluxeRoom.isRoomAvailable(start - 2, 2));
+
+        new CancelBookingCommand(hotel, "RES_008").execute();
+        assertTrue(deluxeRoom.isRoomAvailable(start, 3));
+    }
+
+    @Test
+    @DisplayName("9. Reservation numbers are unique and indexed")
+    void testReservationNumberIndex() throws Exception {
+        RoomBooking booking = createConfirmedBooking("RES_009", DELUXE_ROOM_NUMBER, GUEST_1_ID, futureDate, 1);
+        assertSame(booking, hotel.findBookingByReservationNumber("RES_009"));
+
+        assertThrows(InvalidBookingException.class, () ->
+                hotel.createBooking("RES_009", BUSINESS_ROOM_NUMBER, GUEST_2_ID, futureDate, 1));
+        assertTrue(businessRoom.isRoomAvailable(futureDate, 1));
+
+        new CancelBookingCommand(hotel, "RES_009").execute();
+        assertNull(hotel.findBookingByReservationNumber("RES_009"));
+        assertFalse(hotel.bookings.contains(booking));
+    }
+
+    @Test
+    @DisplayName("10. Calendar search tracks bookings and cancellations")
+    void testCalendarSearch() throws Exception {
+        createConfirmedBooking("RES_010", BUSINESS_ROOM_NUMBER, GUEST_1_ID, futureDate, 2);
+
+        assertEquals(List.of(deluxeRoom), hotel.searchRooms(new RoomAvailabilitySearchStrategy(), null, futureDate, 3));
+        assertTrue(hotel.searchRooms(new RoomStyleSearchStrategy(), RoomStyle.BUSINESS_SUITE, futureDate, 1).isEmpty());
+
+        new CancelBookingCommand(hotel, "RES_010").execute();
+        assertEquals(List.of(businessRoom),
+                hotel.searchRooms(new RoomStyleSearchStrategy(), RoomStyle.BUSINESS_SUITE, futureDate, 1));
+    }
+
+    @Test
+    @DisplayName("11. Guest notifications are delivered off the booking thread")
+    void testAsyncNotifications() throws Exception {
+        List<String> received = new CopyOnWriteArrayList<>();
+        Set<Thread> deliveryThreads = ConcurrentHashMap.newKeySet();
+        Guest carol = new Guest("G003", "Carol", "carol@example.com", "333") {
+            @Override
+            public void updateAll(List<pratikwayase.events.BookingConfirmationEvent> events) {
+                deliveryThreads.add(Thread.currentThread());
+                events.forEach(event -> received.add(event.getReservationNumber()));
+            }
+        };
+        hotel.addUser(carol);
+
+        createConfirmedBooking("RES_011", DELUXE_ROOM_NUMBER, "G003", futureDate, 1);
+        new CancelBookingCommand(hotel, "RES_011").execute();
+
+        assertTrue(hotel.getNotificationDispatcher().awaitIdle(5, TimeUnit.SECONDS));
+        assertEquals(List.of("RES_011", "RES_011"), received);
+        assertFalse(deliveryThreads.contains(Thread.currentThread()));
+    }
+
+    @Test
+    @DisplayName("12. Block reservations are all-or-nothing")
+    void testBatchBooking() throws Exception {
+        createConfirmedBooking("RES_012", BUSINESS_ROOM_NUMBER, GUEST_1_ID, futureDate, 1);
+
+        BatchBookRoomCommand conflicting = new BatchBookRoomCommand(hotel, List.of(
+                new BookingRequest("BLK_1", DELUXE_ROOM_NUMBER, GUEST_2_ID, futureDate, 2),
+                new BookingRequest("BLK_2", BUSINESS_ROOM_NUMBER, GUEST_2_ID, futureDate, 2)));
+        assertThrows(RoomNotAvailableException.class, conflicting::execute);
+        assertNull(hotel.findBookingByReservationNumber("BLK_1"));
+        assertTrue(deluxeRoom.isRoomAvailable(futureDate, 2));
+
+        BatchBookRoomCommand block = new BatchBookRoomCommand(hotel, List.of(
+                new BookingRequest("BLK_3", DELUXE_ROOM_NUMBER, GUEST_2_ID, futureDate, 2),
+                new BookingRequest("BLK_4", DELUXE_ROOM_NUMBER, GUEST_2_ID, today, 1)));
+        block.execute();
+        assertEquals(2, block.getCreatedBookings().size());
+        block.getCreatedBookings().forEach(b -> assertEquals(BookingStatus.CONFIRMED, b.getStatus()));
+        assertEquals(2, guestBob.getBookings().size());
+        assertTrue(hotel.getNotificationDispatcher().awaitIdle(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("13. Multi-criteria search filters, sorts by price and pages")
+    void testRoomQuery() throws Exception {
+        Room cheapSmoking = roomFactory.createRoom(RoomStyle.DELUXE, "103", 90.0, true);
+        Room pricey = roomFactory.createRoom(RoomStyle.DELUXE, "104", 400.0, false);
+        Room midRange = roomFactory.createRoom(RoomStyle.DELUXE, "105", 175.0, false);
+        hotel.addRoom(cheapSmoking);
+        hotel.addRoom(pricey);
+        hotel.addRoom(midRange);
+        createConfirmedBooking("RES_013", DELUXE_ROOM_NUMBER, GUEST_1_ID, futureDate, 2);
+
+        long day = EpochDays.of(futureDate);
+        assertEquals(List.of(midRange, pricey), hotel.searchRooms(new RoomQuery(day, 1)
+                .style(RoomStyle.DELUXE).smoking(false).sortBy(RoomQuery.SortOrder.PRICE_ASCENDING)));
+        assertEquals(List.of(pricey, businessRoom), hotel.searchRooms(new RoomQuery(day, 1)
+                .sortBy(RoomQuery.SortOrder.PRICE_DESCENDING).page(0, 2)));
+        assertEquals(List.of(businessRoom, midRange), hotel.searchRooms(new RoomQuery(day, 1)
+                .priceBetween(100, 300).sortBy(RoomQuery.SortOrder.PRICE_DESCENDING)));
+        assertEquals(List.of(deluxeRoom, midRange), hotel.searchRooms(new RoomQuery(day + 2, 1)
+                .priceBetween(100, 180)));
+        assertEquals(List.of(midRange), hotel.searchRooms(new RoomQuery(day, 1)
+                .style(RoomStyle.DELUXE).sortBy(RoomQuery.SortOrder.PRICE_ASCENDING).page(1, 1)));
+    }
+
+    @Test
+    @DisplayName("14. Cached searches are evicted only by changes overlapping their dates")
+    void testSearchCache() throws Exception {
+        List<SearchResultCache> caches = hotel.getSearchCaches(); // one per shard, each searched every time
+        int shards = hotel.getShardCount();
+        long day = EpochDays.of(futureDate);
+        RoomAvailabilitySearchStrategy strategy = new RoomAvailabilitySearchStrategy();
+        hotel.searchRooms(strategy, null, day, 2);
+        hotel.searchRooms(strategy, RoomStyle.BUSINESS_SUITE, day + 5, 1);
+        assertEquals(2, hotel.searchRooms(strategy, null, day, 2).size());
+        assertEquals(shards, caches.stream().mapToLong(SearchResultCache::getHitCount).sum());
+
+        createConfirmedBooking("RES_014", DELUXE_ROOM_NUMBER, GUEST_1_ID, futureDate, 1);
+        // only the overlapping entry in room 101's shard goes; the business suite search on other dates survives
+        assertEquals(2 * shards - 1, caches.stream().mapToInt(SearchResultCache::size).sum());
+        assertEquals(List.of(businessRoom), hotel.searchRooms(strategy, null, day, 2));
+
+        new Receptionist(RECEPTIONIST_ID, "John", "john@hotel.com", "333")
+                .checkInGuest(hotel.createBooking("RES_015", BUSINESS_ROOM_NUMBER, GUEST_2_ID, today, 1));
+        assertTrue(hotel.searchRooms(strategy, RoomStyle.BUSINESS_SUITE, day + 5, 1).isEmpty());
+    }
+
+    @Test
+    @DisplayName("15. Sharded hotels answer searches in room order whatever the shard count")
+    void testShardedSearch() throws Exception {
+        Hotel sharded = new Hotel("Sharded", 4);
+        List<Room> added = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            Room room = roomFactory.createRoom(RoomStyle.DELUXE, "S" + i, 100.0 + (i % 3) * 50, i % 2 == 0);
+            sharded.addRoom(room);
+            added.add(room);
+        }
+        sharded.addUser(guestAlice);
+        sharded.createBooking("RES_S", "S0", GUEST_1_ID, futureDate, 1);
+
+        assertEquals(added, sharded.getRooms());
+        assertEquals(added.subList(1, 12), sharded.searchRooms(new RoomAvailabilitySearchStrategy(), RoomStyle.DELUXE, futureDate, 1));
+        assertEquals(List.of(added.get(11), added.get(8), added.get(5)), sharded.searchRooms(new RoomQuery(EpochDays.of(futureDate), 1)
+                .sortBy(RoomQuery.SortOrder.PRICE_DESCENDING).page(0, 3)));
+        assertEquals(List.of(added.get(6), added.get(9)), sharded.searchRooms(new RoomQuery(EpochDays.of(futureDate), 1)
+                .sortBy(RoomQuery.SortOrder.PRICE_ASCENDING).page(1, 2)));
+    }
+    @Test
+    @DisplayName("16. Guests find their stays by reservation number and date range")
+    void testGuestBookingIndex() throws Exception {
+        long day = EpochDays.of(futureDate);
+        RoomBooking first = hotel.createBooking("RES_016", DELUXE_ROOM_NUMBER, GUEST_1_ID, day, 3);
+        RoomBooking second = hotel.createBooking("RES_017", DELUXE_ROOM_NUMBER, GUEST_1_ID, day + 10, 1);
+        RoomBooking current = hotel.createBooking("RES_018", BUSINESS_ROOM_NUMBER, GUEST_1_ID, today, 1);
+
+        assertSame(second, guestAlice.findBooking("RES_017"));
+        assertEquals(List.of(current, first, second), guestAlice.getBookings());
+        assertEquals(List.of(first), guestAlice.getStaysBetween(day + 2, day + 10));
+        assertEquals(List.of(first, second), guestAlice.getStaysBetween(day + 1, day + 11));
+
+        hotel.cancelBooking(first);
+        assertNull(guestAlice.findBooking("RES_016"));
+        assertEquals(List.of(current, second), guestAlice.getUpcomingStays());
+
+        RoomBooking inProgress = RoomBooking.restore("RES_019", deluxeRoom, guestAlice, EpochDays.today() - 1, 2, BookingStatus.CHECKED_IN);
+        guestAlice.addBooking(inProgress);
+        assertEquals(List.of(inProgress, current, second), guestAlice.getUpcomingStays());
+    }
+
+    @Test
+    @DisplayName("17. Blocks over rooms sharing lock stripes, taken in opposite orders, never deadlock")
+    void testStripedBlockBookings() throws Exception {
+        List<String> numbers = new ArrayList<>();
+        for (int i = 0; i < 300; i++) { // more rooms than a small stripe table, so stripes are shared within a block
+            hotel.addRoom(roomFactory.createRoom(RoomStyle.DELUXE, "L" + i, 120.0, false));
+            numbers.add("L" + i);
+        }
+        long day = EpochDays.of(futureDate);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<Future<?>> blocks = new ArrayList<>();
+        for (int t = 0; t < 2; t++) {
+            int thread = t;
+            blocks.add(executor.submit(() -> {
+                List<String> order = new ArrayList<>(numbers);
+                if (thread == 1) {
+                    Collections.reverse(order);
+                }
+                for (int round = 0; round < 10; round++) {
+                    List<BookingRequest> requests = new ArrayList<>();
+                    for (String number : order) {
+                        requests.add(new BookingRequest("BLK_" + thread + "_" + round + "_" + number, number, GUEST_1_ID,
+                                day + 2 * round + thread, 1));
+                    }
+                    hotel.createBookings(requests);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> block : blocks) {
+            block.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertFalse(hotel.findRoomByNumber("L7").isRoomAvailable(day + 19, 1));
+        assertTrue(hotel.findRoomByNumber("L7").isRoomAvailable(day + 20, 1));
+    }
+
+    @RepeatedTest(3)
+    @DisplayName("18. Racing cancel and check-in leave exactly one consistent outcome")
+    void testRacingTransitions() throws Exception {
+        Receptionist receptionist = new Receptionist(RECEPTIONIST_ID, "John", "john@hotel.com", "333");
+        long rejected = HotelMetrics.getRejectedTransitionCount(BookingStatus.CANCELLED)
+                + HotelMetrics.getRejectedTransitionCount(BookingStatus.CHECKED_IN);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        for (int round = 0; round < 50; round++) {
+            RoomBooking booking = createConfirmedBooking("RACE_" + round, DELUXE_ROOM_NUMBER, GUEST_1_ID, today, 1);
+            CyclicBarrier start = new CyclicBarrier(2);
+            Future<?> cancel = executor.submit(() -> {
+                start.await();
+                hotel.cancelBooking(booking);
+                return null;
+            });
+            Future<Boolean> checkIn = executor.submit(() -> {
+                start.await();
+                try {
+                    receptionist.checkInGuest(booking);
+                    return true;
+                } catch (BookingStateException e) {
+                    return false;
+                }
+            });
+            cancel.get(5, TimeUnit.SECONDS);
+            if (checkIn.get(5, TimeUnit.SECONDS)) {
+                assertEquals(BookingStatus.CHECKED_IN, booking.getStatus());
+                assertEquals(RoomStatus.OCCUPIED, deluxeRoom.getStatus());
+                assertSame(booking, hotel.findBookingByReservationNumber(booking.getReservationNumber()));
+                receptionist.checkOutGuest(booking);
+            } else {
+                assertEquals(BookingStatus.CANCELLED, booking.getStatus());
+                assertEquals(RoomStatus.AVAILABLE, deluxeRoom.getStatus());
+                assertNull(hotel.findBookingByReservationNumber(booking.getReservationNumber()));
+            }
+            assertTrue(deluxeRoom.isRoomAvailable(today, 1));
+        }
+        executor.shutdown();
+        assertEquals(rejected + 50, HotelMetrics.getRejectedTransitionCount(BookingStatus.CANCELLED)
+                + HotelMetrics.getRejectedTransitionCount(BookingStatus.CHECKED_IN));
+        assertThrows(BookingStateException.class, () -> receptionist.checkOutGuest(hotel.createBooking("RACE_END", DELUXE_ROOM_NUMBER, GUEST_1_ID, today, 1)));
+    }
+
+    @Test
+    @DisplayName("19. Booking observers run outside the room lock and see changes in order")
+    void testObserversOutsideRoomLock() throws Exception {
+        List<String> seen = Collections.synchronizedList(new ArrayList<>());
+        hotel.addBookingObserver(event -> {
+            Room room = event.getBooking().getRoom();
+            // reads the room it is told about, which would block forever on a held write lock
+            seen.add(event.getStatus() + ":" + room.isBooked(event.getBooking().getStartEpochDay(), 1));
+        });
+        RoomBooking booking = hotel.createBooking("OBS_1", DELUXE_ROOM_NUMBER, GUEST_1_ID, today, 1);
+        hotel.confirmBooking(booking);
+        hotel.cancelBooking(booking);
+        assertEquals(List.of("PENDING:true", "CONFIRMED:true", "CANCELLED:false"), seen);
+    }
+
+    @Test
+    @DisplayName("20. A failing notification observer keeps getting later deliveries")
+    void testFailingNotificationObserver() throws Exception {
+        List<String> received = new CopyOnWriteArrayList<>();
+        try (NotificationDispatcher<String> dispatcher = new NotificationDispatcher<>(
+                Executors.newSingleThreadExecutor(), 16, 1, NotificationDispatcher.OverflowPolicy.DROP)) {
+            Observer<String> observer = event -> {
+                if (event.equals("bad")) {
+                    throw new IllegalStateException("observer failure");
+                }
+                received.add(event);
+            };
+            dispatcher.dispatch(observer, "bad");
+            dispatcher.dispatch(observer, "good");
+            assertTrue(dispatcher.awaitIdle(5, TimeUnit.SECONDS));
+            dispatcher.dispatch(observer, "later");
+            assertTrue(dispatcher.awaitIdle(5, TimeUnit.SECONDS));
+            assertEquals(List.of("good", "later"), received);
+            assertEquals(1, dispatcher.getFailedCount());
+            assertEquals(2, dispatcher.getDeliveredCount());
+        }
+    }
+
+    @Test
+    @DisplayName("21. Racing add and remove of a guest's booking keep both of its indexes in step")
+    void testGuestIndexRace() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        for (int round = 0; round < 200; round++) {
+            RoomBooking booking = RoomBooking.restore("IDX_" + round, deluxeRoom, guestBob, EpochDays.today() + round, 1, BookingStatus.CONFIRMED);
+            CyclicBarrier start = new CyclicBarrier(2);
+            Future<?> add = executor.submit(() -> {
+                start.await();
+                guestBob.addBooking(booking);
+                return null;
+            });
+            Future<?> remove = executor.submit(() -> {
+                start.await();
+                guestBob.removeBooking(booking);
+                return null;
+            });
+            add.get(5, TimeUnit.SECONDS);
+            remove.get(5, TimeUnit.SECONDS);
+            assertEquals(guestBob.getBookingCount(), guestBob.getBookings().size());
+            assertEquals(guestBob.findBooking("IDX_" + round) != null, guestBob.getBookings().contains(booking));
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("22. Search strategies implementing only the Date method still work")
+    void testDateOnlySearchStrategy() throws Exception {
+        createConfirmedBooking("RES_022", DELUXE_ROOM_NUMBER, GUEST_1_ID, futureDate, 1);
+        SearchStrategy dateOnly = new SearchStrategy() {
+            @Override
+            public List<Room> searchRooms(List<Room> rooms, RoomStyle style, Date startDate, int duration) {
+                return rooms.stream()
+                        .filter(room -> room.getStyle() == style && room.isRoomAvailable(startDate, duration))
+                        .collect(Collectors.toList());
+            }
+        };
+        assertTrue(hotel.searchRooms(dateOnly, RoomStyle.DELUXE, futureDate, 1).isEmpty());
+        assertEquals(List.of(deluxeRoom), hotel.searchRooms(dateOnly, RoomStyle.DELUXE, EpochDays.of(futureDate) + 1, 1));
+    }
+
+    @Test
+    @DisplayName("23. Racing reservations of one room keep exactly a non-overlapping set of stays")
+    void testOverlappingReserveRace() throws Exception {
+        long base = EpochDays.today() + 1;
+        List<long[]> aligned = new ArrayList<>(); // back-to-back two-night stays, four contenders each
+        List<long[]> mixed = new ArrayList<>(); // the same plus stays straddling two of them
+        for (int slot = 0; slot < 16; slot++) {
+            for (int copy = 0; copy < 4; copy++) {
+                aligned.add(new long[]{base + 2 * slot, 2});
+            }
+            mixed.add(new long[]{base + 2 * slot, 2});
+            mixed.add(new long[]{base + 2 * slot + 1, 2});
+        }
+
+        List<RoomBooking> winners = reserveConcurrently(new Room("R_ALIGNED", RoomStyle.DELUXE, 100.0, false), aligned);
+        assertEquals(16, winners.size()); // one per slot, adjacent stays never collide
+        assertEquals(16, winners.stream().map(RoomBooking::getStartEpochDay).distinct().count());
+
+        Room room = new Room("R_MIXED", RoomStyle.DELUXE, 100.0, false);
+        winners = reserveConcurrently(room, mixed);
+        for (int i = 0; i < winners.size(); i++) {
+            for (int j = i + 1; j < winners.size(); j++) {
+                RoomBooking a = winners.get(i);
+                RoomBooking b = winners.get(j);
+                assertFalse(a.getStartEpochDay() < b.getEndEpochDay() && b.getStartEpochDay() < a.getEndEpochDay(),
+                        a.getReservationNumber() + " overlaps " + b.getReservationNumber());
+            }
+        }
+        for (long[] stay : mixed) { // every refused stay lost to a winner holding one of its nights
+            assertTrue(room.isBooked(stay[0], (int) stay[1]));
+        }
+        assertEquals(winners.size(), room.bookings.size());
+    }
+
+    @Test
+    @DisplayName("24. Searches by other strategies bypass the cache")
+    void testUncachedStrategies() throws Exception {
+        long day = EpochDays.of(futureDate);
+        long hits = hotel.getSearchCaches().stream().mapToLong(SearchResultCache::getHitCount).sum();
+        for (RoomStyle style : List.of(RoomStyle.DELUXE, RoomStyle.BUSINESS_SUITE)) {
+            SearchStrategy ignoringStyle = new SearchStrategy() { // one class, configured per loop
+                @Override
+                public List<Room> searchRooms(List<Room> rooms, RoomStyle requested, Date startDate, int duration) {
+                    return rooms.stream().filter(room -> room.getStyle() == style).collect(Collectors.toList());
+                }
+            };
+            assertEquals(List.of(hotel.findRoomByNumber(style == RoomStyle.DELUXE ? DELUXE_ROOM_NUMBER : BUSINESS_ROOM_NUMBER)),
+                    hotel.searchRooms(ignoringStyle, null, day, 1));
+        }
+        assertEquals(hits, hotel.getSearchCaches().stream().mapToLong(SearchResultCache::getHitCount).sum());
+    }
+
+    @Test
+    @DisplayName("25. Overflow run by the caller is delivered after the queued events and failures stay contained")
+    void testCallerRunsOverflow() throws Exception {
+        List<String> received = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try (NotificationDispatcher<String> dispatcher = new NotificationDispatcher<>(
+                executor, 2, 1, NotificationDispatcher.OverflowPolicy.CALLER_RUNS)) {
+            Observer<String> observer = event -> {
+                if (event.equals("bad")) {
+                    throw new IllegalStateException("observer failure");
+                }
+                received.add(event);
+            };
+            dispatcher.dispatch(observer, "first");
+            dispatcher.dispatch(observer, "second"); // fills the capacity, both wait behind the blocked executor
+            Future<?> overflow = Executors.newSingleThreadExecutor().submit(() -> dispatcher.dispatch(observer, "third"));
+            release.countDown();
+            overflow.get(5, TimeUnit.SECONDS);
+            dispatcher.dispatch(observer, "fourth");
+            assertTrue(dispatcher.awaitIdle(5, TimeUnit.SECONDS));
+            assertEquals(List.of("first", "second", "third", "fourth"), received);
+
+            dispatcher.dispatch(observer, "bad");
+            dispatcher.dispatch(observer, "bad");
+            assertDoesNotThrow(() -> dispatcher.dispatch(observer, "bad")); // inline, or queued if the others drained
+            assertTrue(dispatcher.awaitIdle(5, TimeUnit.SECONDS));
+            assertEquals(3, dispatcher.getFailedCount());
+            assertEquals(4, dispatcher.getDeliveredCount());
+        }
+    }
+
+    private List<RoomBooking> reserveConcurrently(Room room, List<long[]> stays) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<RoomBooking>> results = new ArrayList<>();
+        for (int i = 0; i < stays.size(); i++) {
+            RoomBooking booking = RoomBooking.restore("RACE_" + i, room, guestBob, stays.get(i)[0], (int) stays.get(i)[1],
+                    BookingStatus.CONFIRMED);
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    room.reserve(booking);
+                    return booking;
+                } catch (RoomNotAvailableException e) {
+                    return null;
+                }
+            }));
+        }
+        start.countDown();
+        List<RoomBooking> winners = new ArrayList<>();
+        for (Future<RoomBooking> result : results) {
+            RoomBooking booking = result.get(10, TimeUnit.SECONDS);
+            if (booking != null) {
+                winners.add(booking);
+            }
+        }
+        executor.shutdown();
+        return winners;
+    }
+
     private void assertBookingDetails(RoomBooking booking, String expectedRoomNumber,
                                       String expectedGuestId, BookingStatus expectedStatus) {
         assertNotNull(booking);
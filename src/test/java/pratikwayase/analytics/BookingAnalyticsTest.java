@@ -0,0 +1,64 @@
+package pratikwayase.analytics;
+
+import org.junit.jupiter.api.*;
+import pratikwayase.enums.RoomStyle;
+import pratikwayase.factory.DeluxeRoomFactory;
+import pratikwayase.model.*;
+import pratikwayase.util.EpochDays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Booking analytics")
+class BookingAnalyticsTest {
+
+    @Test
+    @DisplayName("1. Occupancy, ADR and RevPAR follow bookings and cancellations")
+    void testNightlyReport() {
+        Hotel hotel = new Hotel("Analytics Inn");
+        DeluxeRoomFactory factory = new DeluxeRoomFactory();
+        hotel.addRoom(factory.createRoom(RoomStyle.DELUXE, "101", 100.0, false));
+        hotel.addRoom(factory.createRoom(RoomStyle.DELUXE, "102", 200.0, false));
+        hotel.addRoom(factory.createRoom(RoomStyle.BUSINESS_SUITE, "201", 300.0, false));
+        hotel.addUser(new Guest("G001", "Alice", "alice@example.com", "111"));
+        long day = EpochDays.today() + 2;
+
+        hotel.confirmBooking(hotel.createBooking("RES_1", "101", "G001", day, 2));
+        BookingAnalytics analytics = BookingAnalytics.attach(hotel); // picks up RES_1 from the hotel
+        hotel.confirmBooking(hotel.createBooking("RES_2", "102", "G001", day + 1, 1));
+        hotel.confirmBooking(hotel.createBooking("RES_3", "201", "G001", day, 1));
+        hotel.createBooking("RES_4", "201", "G001", day + 1, 1); // pending, not sold
+        hotel.cancelBooking(hotel.createBooking("RES_5", "102", "G001", day, 1));
+
+        OccupancyReport report = analytics.report(day, day + 3);
+        assertEquals(5, analytics.getRowCount());
+        assertEquals(0.5, report.getOccupancy(RoomStyle.DELUXE, day), 1e-9);
+        assertEquals(1.0, report.getOccupancy(RoomStyle.DELUXE, day + 1), 1e-9);
+        assertEquals(150.0, report.getAdr(RoomStyle.DELUXE, day + 1), 1e-9);
+        assertEquals(150.0, report.getRevPar(RoomStyle.DELUXE, day + 1), 1e-9);
+        assertEquals(2.0 / 3, report.getOccupancy(null, day), 1e-9);
+        assertEquals(400.0 / 3, report.getRevPar(null, day), 1e-9);
+        assertEquals(0, report.getNightsSold(null, day + 2));
+    }
+
+    @Test
+    @DisplayName("2. A reservation number reused after a cancellation gets a row of its own")
+    void testReusedReservationNumber() {
+        Hotel hotel = new Hotel("Analytics Inn");
+        hotel.addRoom(new DeluxeRoomFactory().createRoom(RoomStyle.DELUXE, "101", 100.0, false));
+        hotel.addRoom(new DeluxeRoomFactory().createRoom(RoomStyle.DELUXE, "102", 200.0, false));
+        hotel.addUser(new Guest("G001", "Alice", "alice@example.com", "111"));
+        BookingAnalytics analytics = BookingAnalytics.attach(hotel);
+        long day = EpochDays.today() + 2;
+
+        hotel.confirmBooking(hotel.createBooking("RES_1", "101", "G001", day, 2));
+        hotel.cancelBooking(hotel.findBookingByReservationNumber("RES_1"));
+        hotel.confirmBooking(hotel.createBooking("RES_1", "102", "G001", day + 5, 1));
+
+        OccupancyReport report = analytics.report(day, day + 6);
+        assertEquals(2, analytics.getRowCount());
+        assertEquals(0, report.getNightsSold(null, day));
+        assertEquals(0, report.getNightsSold(null, day + 1));
+        assertEquals(1, report.getNightsSold(RoomStyle.DELUXE, day + 5));
+        assertEquals(200.0, report.getAdr(RoomStyle.DELUXE, day + 5), 1e-9);
+    }
+}
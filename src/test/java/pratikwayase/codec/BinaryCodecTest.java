@@ -0,0 +1,115 @@
+package pratikwayase.codec;
+
+import org.junit.jupiter.api.*;
+import pratikwayase.enums.AccountStatus;
+import pratikwayase.enums.BookingStatus;
+import pratikwayase.enums.RoomStatus;
+import pratikwayase.enums.RoomStyle;
+import pratikwayase.events.BookingConfirmationEvent;
+import pratikwayase.model.*;
+import pratikwayase.util.EpochDays;
+
+import java.nio.ByteBuffer;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Binary codec")
+class BinaryCodecTest {
+
+    private Hotel hotel;
+    private Room room;
+    private Guest guest;
+    private BinaryCodec.Encoder encoder;
+    private BinaryCodec.Decoder decoder;
+    private ByteBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        hotel = new Hotel("Codec Inn");
+        room = new Room("101", RoomStyle.FAMILY_SUITE, 450.0, true);
+        guest = new Guest("G001", "Zoë Ünal", "zoe@example.com", "+49 123");
+        hotel.addRoom(room);
+        hotel.addUser(guest);
+        encoder = BinaryCodec.newEncoder();
+        decoder = BinaryCodec.newDecoder();
+        buffer = ByteBuffer.allocateDirect(4096);
+    }
+
+    @Test
+    @DisplayName("1. Room and guest round-trip")
+    void testRoomAndGuest() {
+        room.checkIn();
+        guest.setAccountStatus(AccountStatus.BLOCKED);
+        encoder.encode(room, buffer);
+        encoder.encode(guest, buffer);
+        buffer.flip();
+
+        assertEquals(BinaryCodec.TYPE_ROOM, BinaryCodec.peekType(buffer));
+        Room decodedRoom = decoder.decodeRoom(buffer);
+        assertEquals("101", decodedRoom.getRoomNumber());
+        assertEquals(RoomStyle.FAMILY_SUITE, decodedRoom.getStyle());
+        assertEquals(RoomStatus.OCCUPIED, decodedRoom.getStatus());
+        assertEquals(450.0, decodedRoom.getBookingPrice());
+        assertTrue(decodedRoom.isSmoking());
+
+        Guest decodedGuest = decoder.decodeGuest(buffer);
+        assertEquals("G001", decodedGuest.getId());
+        assertEquals("Zoë Ünal", decodedGuest.getName());
+        assertEquals("+49 123", decodedGuest.getPhone());
+        assertEquals(AccountStatus.BLOCKED, decodedGuest.getAccountStatus());
+        assertFalse(buffer.hasRemaining());
+
+        buffer.clear();
+        encoder.encode(Room.restore("102", RoomStyle.DELUXE, 150.0, false, RoomStatus.BEING_SERVICED), buffer);
+        buffer.flip();
+        assertEquals(RoomStatus.BEING_SERVICED, decoder.decodeRoom(buffer).getStatus());
+    }
+
+    @Test
+    @DisplayName("2. Bookings and events round-trip, repeated keys shrink")
+    void testBookingAndEvent() {
+        long start = EpochDays.today() - 3; // already started, still decodes
+        RoomBooking booking = RoomBooking.restore("RES_1", room, guest, start, 5, BookingStatus.CHECKED_IN);
+        RoomBooking second = RoomBooking.restore("RES_2", room, guest, start + 10, 2, BookingStatus.CONFIRMED);
+
+        encoder.encode(booking, buffer);
+        int firstSize = buffer.position();
+        encoder.encode(second, buffer);
+        int secondSize = buffer.position() - firstSize;
+        encoder.encode(new BookingConfirmationEvent("Confirmed!", "RES_1", "101"), buffer);
+        buffer.flip();
+
+        assertTrue(secondSize < firstSize, "room number and guest ID should be dictionary references");
+
+        BinaryCodec.Resolver resolver = BinaryCodec.Resolver.of(hotel);
+        RoomBooking decoded = decoder.decodeBooking(buffer, resolver);
+        assertEquals("RES_1", decoded.getReservationNumber());
+        assertSame(room, decoded.getRoom());
+        assertSame(guest, decoded.getGuest());
+        assertEquals(start, decoded.getStartEpochDay());
+        assertEquals(5, decoded.getDurationInDays());
+        assertEquals(BookingStatus.CHECKED_IN, decoded.getStatus());
+        assertEquals(start + 10, decoder.decodeBooking(buffer, resolver).getStartEpochDay());
+
+        BookingConfirmationEvent event = decoder.decodeConfirmationEvent(buffer);
+        assertEquals("Confirmed!", event.getMessage());
+        assertEquals("101", event.getRoomNumber());
+    }
+
+    @Test
+    @DisplayName("3. Unknown versions and types are rejected")
+    void testRejectsForeignData() {
+        buffer.put((byte) 0x23).flip();
+        assertThrows(CodecException.class, () -> decoder.decodeBooking(buffer, BinaryCodec.Resolver.of(hotel)));
+
+        buffer.clear();
+        encoder.encode(room, buffer);
+        buffer.flip();
+        assertThrows(CodecException.class, () -> decoder.decodeGuest(buffer));
+
+        buffer.clear();
+        encoder.encode(room, buffer);
+        buffer.put(buffer.position() - 10, (byte) RoomStatus.values().length); // status byte, before smoking and price
+        buffer.flip();
+        assertThrows(CodecException.class, () -> decoder.decodeRoom(buffer));
+    }
+}
@@ -0,0 +1,95 @@
+package pratikwayase.command;
+
+import org.junit.jupiter.api.*;
+import pratikwayase.enums.BookingStatus;
+import pratikwayase.enums.RoomStyle;
+import pratikwayase.exceptions.RoomNotAvailableException;
+import pratikwayase.factory.DeluxeRoomFactory;
+import pratikwayase.model.*;
+import pratikwayase.util.EpochDays;
+
+import java.util.*;
+import java.util.concurrent.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Command bus")
+class CommandBusTest {
+    private Hotel hotel;
+    private CommandBus bus;
+    private Date stay;
+
+    @BeforeEach
+    void setUp() {
+        hotel = new Hotel("Bus Hotel");
+        DeluxeRoomFactory factory = new DeluxeRoomFactory();
+        hotel.addRoom(factory.createRoom(RoomStyle.DELUXE, "101", 150.0, false));
+        hotel.addRoom(factory.createRoom(RoomStyle.DELUXE, "102", 150.0, false));
+        hotel.addUser(new Guest("G001", "Alice", "alice@example.com", "111"));
+        stay = EpochDays.toDate(EpochDays.today() + 3);
+        bus = new CommandBus();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bus.close();
+    }
+
+    @Test
+    @DisplayName("1. Commands for one room run in submission order")
+    void testPerRoomOrdering() throws Exception {
+        List<CompletableFuture<BookRoomCommand>> bookings = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            bookings.add(bus.submit(new BookRoomCommand(hotel, "RES_" + i, i % 2 == 0 ? "101" : "102", "G001", stay, 1)));
+        }
+        // the first booking for each room wins, every later one for the same night is refused
+        assertEquals("RES_0", bookings.get(0).get(5, TimeUnit.SECONDS).getCreatedBooking().getReservationNumber());
+        assertEquals("RES_1", bookings.get(1).get(5, TimeUnit.SECONDS).getCreatedBooking().getReservationNumber());
+        for (int i = 2; i < 20; i++) {
+            ExecutionException failure = assertThrows(ExecutionException.class, bookings.get(i)::get);
+            assertInstanceOf(RoomNotAvailableException.class, failure.getCause());
+        }
+
+        bus.submit(new CancelBookingCommand(hotel, "RES_0"));
+        BookRoomCommand rebook = bus.submit(new BookRoomCommand(hotel, "RES_20", "101", "G001", stay, 1)).get(5, TimeUnit.SECONDS);
+        assertEquals(BookingStatus.CONFIRMED, rebook.getCreatedBooking().getStatus());
+
+        CommandBus.CommandStats stats = bus.getStats(BookRoomCommand.class);
+        assertEquals(3, stats.getCompletedCount());
+        assertEquals(18, stats.getFailedCount());
+    }
+
+    @Test
+    @DisplayName("2. A full mailbox refuses commands without running them")
+    void testAdmissionControl() throws Exception {
+        CommandBus small = new CommandBus(Executors.newVirtualThreadPerTaskExecutor(), 100, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        Command blocker = new Command() {
+            @Override
+            public void execute() {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public String getOrderingKey() {
+                return "101";
+            }
+        };
+        try {
+            CompletableFuture<Command> first = small.submit(blocker);
+            small.submit(blocker);
+            CompletableFuture<Command> refused = small.submit(blocker);
+            ExecutionException failure = assertThrows(ExecutionException.class, refused::get);
+            assertInstanceOf(RejectedExecutionException.class, failure.getCause());
+            assertEquals(1, small.getRejectedCount());
+
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+        } finally {
+            small.close();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package pratikwayase.index;
+
+import org.junit.jupiter.api.*;
+import pratikwayase.enums.BookingStatus;
+import pratikwayase.enums.RoomStyle;
+import pratikwayase.events.RoomOccupancyEvent;
+import pratikwayase.exceptions.InvalidBookingException;
+import pratikwayase.exceptions.RoomNotAvailableException;
+import pratikwayase.model.Guest;
+import pratikwayase.model.Room;
+import pratikwayase.model.RoomBooking;
+import pratikwayase.util.EpochDays;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Availability calendar")
+class AvailabilityCalendarTest {
+    private static final int HORIZON = 8;
+
+    // Stands in for a room writer that reports to the calendar while it still holds the room's lock
+    private static final class LockedRoom extends Room {
+        private final ReentrantLock roomLock;
+
+        LockedRoom(String roomNumber, ReentrantLock roomLock) throws InvalidBookingException {
+            super(roomNumber, RoomStyle.DELUXE, 100.0, false);
+            this.roomLock = roomLock;
+        }
+
+        @Override
+        public boolean isBooked(long startEpochDay, int durationInDays) {
+            roomLock.lock();
+            try {
+                return super.isBooked(startEpochDay, durationInDays);
+            } finally {
+                roomLock.unlock();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("1. Rolling the window while rooms are booked neither deadlocks nor loses nights")
+    void testConcurrentRollover() throws Exception {
+        AtomicLong clock = new AtomicLong(EpochDays.today());
+        AvailabilityCalendar calendar = new AvailabilityCalendar(HORIZON, clock::get);
+        ReentrantLock roomLock = new ReentrantLock();
+        List<Room> rooms = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            rooms.add(new LockedRoom("R" + i, roomLock));
+        }
+        calendar.registerAll(rooms.subList(0, 8));
+        Guest guest = new Guest("G001", "Alice", "alice@example.com", "111");
+
+        ExecutorService executor = Executors.newFixedThreadPool(2, r -> {
+            Thread thread = new Thread(r);
+            thread.setDaemon(true); // a deadlocked run must not keep the JVM alive
+            return thread;
+        });
+        Future<?> writer = executor.submit(() -> {
+            Random random = new Random(42);
+            List<RoomBooking> held = new ArrayList<>();
+            for (int i = 0; i < 20_000; i++) {
+                roomLock.lock();
+                try {
+                    if (!held.isEmpty() && random.nextInt(3) == 0) {
+                        RoomBooking booking = held.remove(random.nextInt(held.size()));
+                        booking.getRoom().removeBooking(booking);
+                        calendar.update(new RoomOccupancyEvent(booking.getRoom(), booking, false));
+                        continue;
+                    }
+                    Room room = rooms.get(random.nextInt(rooms.size()));
+                    long day = clock.get() + random.nextInt(HORIZON + 4); // some stays reach past the window
+                    RoomBooking booking = RoomBooking.restore("RES_" + i, room, guest, day, 1 + random.nextInt(3), BookingStatus.CONFIRMED);
+                    try {
+                        room.reserve(booking);
+                    } catch (RoomNotAvailableException e) {
+                        continue;
+                    }
+                    held.add(booking);
+                    calendar.update(new RoomOccupancyEvent(room, booking, true));
+                } finally {
+                    roomLock.unlock();
+                }
+            }
+            return null;
+        });
+        Future<?> roller = executor.submit(() -> {
+            for (int i = 0; i < 200; i++) {
+                clock.incrementAndGet();
+                calendar.findAvailableRooms(null, clock.get(), 1);
+                calendar.find(new RoomQuery(clock.get() + HORIZON, 2)); // outside the window, asks the rooms
+                if (i == 100) {
+                    calendar.registerAll(rooms.subList(8, 16));
+                }
+                Thread.yield();
+            }
+            return null;
+        });
+        writer.get(30, TimeUnit.SECONDS);
+        roller.get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        for (long day = clock.get(); day < clock.get() + HORIZON; day++) {
+            List<Room> free = calendar.findAvailableRooms(null, day, 1);
+            for (Room room : rooms) {
+                assertEquals(!room.isBooked(day, 1), free.contains(room), room.getRoomNumber() + " on day " + day);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("2. Only events a rescan could have missed make it retry")
+    void testSkippedUpdates() throws Exception {
+        long today = EpochDays.today();
+        AvailabilityCalendar calendar = new AvailabilityCalendar(HORIZON, () -> today);
+        Room registered = new Room("R1", RoomStyle.DELUXE, 100.0, false);
+        Room unregistered = new Room("R2", RoomStyle.DELUXE, 100.0, false);
+        calendar.register(registered);
+        Guest guest = new Guest("G001", "Alice", "alice@example.com", "111");
+
+        calendar.update(new RoomOccupancyEvent(registered,
+                RoomBooking.restore("FAR", registered, guest, today + 10 * HORIZON, 2, BookingStatus.CONFIRMED), true));
+        calendar.update(new RoomOccupancyEvent(registered,
+                RoomBooking.restore("EDGE", registered, guest, today + HORIZON - 1, 3, BookingStatus.CONFIRMED), true));
+        calendar.update(new RoomOccupancyEvent(unregistered,
+                RoomBooking.restore("LATER", unregistered, guest, today + HORIZON, 1, BookingStatus.CONFIRMED), true));
+        assertEquals(0, calendar.getSkippedUpdateCount()); // no roll pending and nothing in the window missed
+
+        calendar.update(new RoomOccupancyEvent(unregistered,
+                RoomBooking.restore("SOON", unregistered, guest, today + 1, 1, BookingStatus.CONFIRMED), true));
+        assertEquals(1, calendar.getSkippedUpdateCount());
+    }
+}
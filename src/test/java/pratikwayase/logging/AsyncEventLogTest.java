@@ -0,0 +1,57 @@
+package pratikwayase.logging;
+
+import org.junit.jupiter.api.*;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Async event log")
+class AsyncEventLogTest {
+
+    private ByteArrayOutputStream buffer;
+    private AsyncEventLog log;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new ByteArrayOutputStream();
+        log = new AsyncEventLog(LogLevel.INFO, new PrintStream(buffer, true), 1024);
+    }
+
+    @AfterEach
+    void tearDown() {
+        log.close();
+    }
+
+    @Test
+    @DisplayName("1. Formats templates and filters by level")
+    void testFormattingAndLevels() {
+        log.log(LogLevel.INFO, "Booking {} for {}", "RES_1", "101", null, null);
+        log.log(LogLevel.DEBUG, "hidden", null, null, null, null);
+        log.flush();
+
+        String output = buffer.toString();
+        assertTrue(output.contains("INFO [" + Thread.currentThread().getName() + "] Booking RES_1 for 101"));
+        assertFalse(output.contains("hidden"));
+    }
+
+    @Test
+    @DisplayName("2. Concurrent producers lose nothing while the ring has room")
+    void testConcurrentProducers() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            executor.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    log.log(LogLevel.INFO, "line {} {}", thread, i, null, null);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        log.flush();
+
+        long written = buffer.toString().lines().count();
+        assertEquals(800, written + log.getDroppedCount());
+    }
+}
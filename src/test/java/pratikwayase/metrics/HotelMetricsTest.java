@@ -0,0 +1,92 @@
+package pratikwayase.metrics;
+
+import org.junit.jupiter.api.*;
+import pratikwayase.enums.BookingStatus;
+import pratikwayase.enums.RoomStyle;
+import pratikwayase.exceptions.RoomNotAvailableException;
+import pratikwayase.factory.DeluxeRoomFactory;
+import pratikwayase.model.*;
+import pratikwayase.strategy.RoomStyleSearchStrategy;
+import pratikwayase.util.EpochDays;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Hotel metrics")
+class HotelMetricsTest {
+
+    @Test
+    @DisplayName("1. Percentiles stay within a bucket of the recorded values")
+    void testHistogramPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 100_000; nanos++) {
+            histogram.record(nanos);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(100_000, snapshot.getCount());
+        assertEquals(100_000, snapshot.getMaxNanos());
+        assertEquals(50_000, snapshot.getValueAtQuantile(0.5), 50_000 / 16.0);
+        assertEquals(99_000, snapshot.getValueAtQuantile(0.99), 99_000 / 16.0);
+        assertEquals(100_000, snapshot.getValueAtQuantile(1.0));
+        assertEquals(7, snapshot.getValueAtQuantile(0.00007));
+    }
+
+    @Test
+    @DisplayName("2. Booking operations are timed and served in Prometheus format")
+    void testPrometheusEndpoint() throws Exception {
+        Hotel hotel = new Hotel("Metrics Hotel");
+        hotel.addRoom(new DeluxeRoomFactory().createRoom(RoomStyle.DELUXE, "101", 150.0, false));
+        hotel.addUser(new Guest("G001", "Alice", "alice@example.com", "111"));
+        long day = EpochDays.today() + 3;
+
+        long created = HotelMetrics.getLatency(HotelMetrics.Operation.CREATE_BOOKING).getCount();
+        long searched = HotelMetrics.getLatency(HotelMetrics.Operation.SEARCH_ROOMS).getCount();
+        long cancelled = HotelMetrics.getLatency(HotelMetrics.Operation.CANCEL_BOOKING).getCount();
+        long unavailable = HotelMetrics.getUnavailableRoomCount();
+
+        RoomBooking booking = hotel.createBooking("RES_1", "101", "G001", day, 2);
+        assertThrows(RoomNotAvailableException.class, () -> hotel.createBooking("RES_2", "101", "G001", day + 1, 1));
+        hotel.searchRooms(new RoomStyleSearchStrategy(), RoomStyle.DELUXE, day, 1);
+        hotel.cancelBooking(booking);
+
+        assertEquals(created + 2, HotelMetrics.getLatency(HotelMetrics.Operation.CREATE_BOOKING).getCount());
+        assertEquals(searched + 1, HotelMetrics.getLatency(HotelMetrics.Operation.SEARCH_ROOMS).getCount());
+        assertEquals(cancelled + 1, HotelMetrics.getLatency(HotelMetrics.Operation.CANCEL_BOOKING).getCount());
+        assertEquals(unavailable + 1, HotelMetrics.getUnavailableRoomCount());
+
+        try (PrometheusEndpoint endpoint = new PrometheusEndpoint(0)) {
+            HttpResponse<String> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + endpoint.getPort() + "/metrics")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode());
+            assertTrue(response.body().contains("# TYPE hotel_operation_latency_seconds summary\n"));
+            assertTrue(response.body().contains("hotel_operation_latency_seconds{operation=\"create_booking\",quantile=\"0.99\"} "));
+            assertTrue(response.body().contains("hotel_lock_wait_seconds_count{lock=\"room\"} "));
+            assertTrue(response.body().contains("hotel_room_unavailable_total " + HotelMetrics.getUnavailableRoomCount() + "\n"));
+        }
+    }
+
+    @Test
+    @DisplayName("3. Failed availability checks are counted and sampled latencies are scaled up")
+    void testAvailabilityChecks() throws Exception {
+        Room room = new DeluxeRoomFactory().createRoom(RoomStyle.DELUXE, "101", 150.0, false);
+        room.reserve(RoomBooking.restore("RES_1", room, new Guest("G001", "Alice", "alice@example.com", "111"),
+                EpochDays.today() + 3, 2, BookingStatus.CONFIRMED));
+        long failed = HotelMetrics.getFailedAvailabilityCheckCount();
+
+        assertTrue(room.isRoomAvailable(EpochDays.today() + 5, 1));
+        assertFalse(room.isRoomAvailable(EpochDays.today() + 4, 1));
+        assertFalse(room.isRoomAvailable(EpochDays.today() + 2, 3));
+        assertEquals(failed + 2, HotelMetrics.getFailedAvailabilityCheckCount());
+
+        String body = PrometheusEndpoint.scrape();
+        assertTrue(body.contains("hotel_availability_check_failed_total " + HotelMetrics.getFailedAvailabilityCheckCount() + "\n"));
+        long sampled = HotelMetrics.getLatency(HotelMetrics.Operation.IS_ROOM_AVAILABLE).getCount();
+        assertTrue(body.contains("hotel_operation_latency_seconds_count{operation=\"is_room_available\"} "
+                + sampled * HotelMetrics.SAMPLE_RATE + "\n"));
+    }
+}
@@ -0,0 +1,145 @@
+package pratikwayase.persistence;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import pratikwayase.enums.BookingStatus;
+import pratikwayase.enums.RoomStatus;
+import pratikwayase.enums.RoomStyle;
+import pratikwayase.factory.DeluxeRoomFactory;
+import pratikwayase.model.*;
+import pratikwayase.util.EpochDays;
+
+import java.nio.file.Path;
+import java.util.Calendar;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Hotel persistence")
+class HotelPersistenceTest {
+
+    @TempDir
+    Path directory;
+
+    private Date inDays(int days) {
+        Calendar cal = Calendar.getInstance();
+        cal.add(Calendar.DAY_OF_MONTH, days);
+        return cal.getTime();
+    }
+
+    private Hotel newHotel() {
+        Hotel hotel = new Hotel("Persistent Plaza");
+        DeluxeRoomFactory factory = new DeluxeRoomFactory();
+        hotel.addRoom(factory.createRoom(RoomStyle.DELUXE, "101", 150.0, false));
+        hotel.addRoom(factory.createRoom(RoomStyle.DELUXE, "102", 150.0, false));
+        hotel.addUser(new Guest("G001", "Alice", "alice@example.com", "111"));
+        return hotel;
+    }
+
+    @Test
+    @DisplayName("1. Snapshot plus journal tail restores every booking")
+    void testRecovery() throws Exception {
+        Hotel hotel = newHotel();
+        Receptionist receptionist = new Receptionist("R001", "John", "john@hotel.com", "333");
+        try (HotelPersistence persistence = HotelPersistence.open(hotel, directory, 5, 0)) {
+            hotel.confirmBooking(hotel.createBooking("RES_1", "101", "G001", inDays(3), 2));
+            hotel.createBooking("RES_2", "102", "G001", inDays(3), 1);
+            persistence.snapshot();
+
+            hotel.cancelBooking(hotel.findBookingByReservationNumber("RES_2"));
+            RoomBooking stay = hotel.createBooking("RES_3", "102", "G001", inDays(0), 1);
+            receptionist.checkInGuest(stay);
+
+            long last = persistence.getJournal().getAppendedSequence();
+            assertTrue(persistence.getJournal().awaitDurable(last, 5, TimeUnit.SECONDS));
+        }
+
+        Hotel recovered = newHotel();
+        try (HotelPersistence ignored = HotelPersistence.open(recovered, directory, 5, 0)) {
+            assertEquals(BookingStatus.CONFIRMED, recovered.findBookingByReservationNumber("RES_1").getStatus());
+            assertNull(recovered.findBookingByReservationNumber("RES_2"));
+            assertEquals(BookingStatus.CHECKED_IN, recovered.findBookingByReservationNumber("RES_3").getStatus());
+            assertEquals(RoomStatus.OCCUPIED, recovered.findRoomByNumber("102").getStatus());
+            assertFalse(recovered.findRoomByNumber("101").isRoomAvailable(inDays(4), 1));
+        }
+    }
+
+    @Test
+    @DisplayName("2. Replaying transitions a snapshot already shows still ends in the latest status")
+    void testRecoveryAfterConfirmAndCheckIn() throws Exception {
+        Hotel hotel = newHotel();
+        Receptionist receptionist = new Receptionist("R001", "John", "john@hotel.com", "333");
+        try (HotelPersistence persistence = HotelPersistence.open(hotel, directory, 5, 0)) {
+            RoomBooking stay = hotel.createBooking("RES_1", "101", "G001", inDays(0), 2);
+            long covered = persistence.getJournal().roll();
+            hotel.confirmBooking(stay);
+            receptionist.checkInGuest(stay);
+            // statuses read after the roll, so the journal tail replays CONFIRMED over CHECKED_IN
+            new SnapshotStore(directory).write(covered, hotel.bookings);
+
+            long last = persistence.getJournal().getAppendedSequence();
+            assertTrue(persistence.getJournal().awaitDurable(last, 5, TimeUnit.SECONDS));
+        }
+
+        Hotel recovered = newHotel();
+        try (HotelPersistence ignored = HotelPersistence.open(recovered, directory, 5, 0)) {
+            assertEquals(BookingStatus.CHECKED_IN, recovered.findBookingByReservationNumber("RES_1").getStatus());
+            assertEquals(RoomStatus.OCCUPIED, recovered.findRoomByNumber("101").getStatus());
+            assertTrue(recovered.findRoomByNumber("101").isBooked(EpochDays.today() + 1, 1));
+        }
+    }
+
+    @Test
+    @DisplayName("3. Full segments are forced by the flusher and no record is lost or truncated")
+    void testSegmentRollover() throws Exception {
+        List<Long> replayed = new ArrayList<>();
+        try (BookingJournal journal = BookingJournal.open(directory, 5, 256)) {
+            for (int i = 0; i < 100; i++) {
+                journal.appendStatus("RES_" + i, BookingStatus.CONFIRMED);
+            }
+            assertTrue(journal.awaitDurable(100, 5, TimeUnit.SECONDS));
+            assertThrows(IllegalArgumentException.class, () -> journal.appendStatus("R".repeat(70_000), BookingStatus.CONFIRMED));
+            journal.replay(0, new BookingJournal.Replayer() {
+                @Override
+                public void onCreate(long sequence, String reservationNumber, String roomNumber, String guestId,
+                                     long startEpochDay, int durationInDays, BookingStatus status) {
+                    fail("no create was appended");
+                }
+
+                @Override
+                public void onStatus(long sequence, String reservationNumber, BookingStatus status) {
+                    assertEquals("RES_" + (sequence - 1), reservationNumber);
+                    replayed.add(sequence);
+                }
+            });
+        }
+        assertEquals(100, replayed.size());
+        assertEquals(100L, replayed.get(99));
+    }
+
+    @Test
+    @DisplayName("4. A booking dead before its create record was written is not brought back")
+    void testCreateRecordCarriesEventStatus() throws Exception {
+        Hotel hotel = newHotel();
+        long day = EpochDays.today() + 3;
+        RoomBooking cancelled = RoomBooking.restore("RES_1", hotel.findRoomByNumber("101"),
+                (Guest) hotel.findUserById("G001"), day, 2, BookingStatus.CANCELLED);
+        try (BookingJournal journal = BookingJournal.open(directory, 5)) {
+            journal.appendCreate(cancelled, BookingStatus.PENDING); // created, then cancelled before the observer ran
+            journal.appendStatus("RES_1", BookingStatus.CANCELLED);
+            journal.appendCreate(RoomBooking.restore("RES_2", hotel.findRoomByNumber("102"),
+                    (Guest) hotel.findUserById("G001"), day, 2, BookingStatus.ABANDONED), BookingStatus.ABANDONED);
+        }
+
+        Hotel recovered = newHotel();
+        try (HotelPersistence persistence = HotelPersistence.open(recovered, directory, 5, 0)) {
+            assertTrue(recovered.bookings.isEmpty());
+            assertNull(recovered.findBookingByReservationNumber("RES_1"));
+            assertNull(recovered.findBookingByReservationNumber("RES_2"));
+            assertTrue(recovered.findRoomByNumber("101").isRoomAvailable(day, 2));
+            assertEquals(BookingStatus.PENDING, recovered.createBooking("RES_2", "102", "G001", day, 2).getStatus());
+        }
+    }
+}
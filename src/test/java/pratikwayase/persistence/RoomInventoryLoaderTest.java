@@ -0,0 +1,61 @@
+package pratikwayase.persistence;
+
+import org.junit.jupiter.api.*;
+import pratikwayase.codec.BinaryCodec;
+import pratikwayase.enums.RoomStyle;
+import pratikwayase.exceptions.InvalidBookingException;
+import pratikwayase.index.RoomQuery;
+import pratikwayase.model.*;
+import pratikwayase.util.EpochDays;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Room inventory loader")
+class RoomInventoryLoaderTest {
+
+    @Test
+    @DisplayName("1. CSV and binary inventories load in batches, in order, refusing taken numbers")
+    void testBulkLoad() throws Exception {
+        Hotel hotel = new Hotel("Inventory Inn", 1);
+        String csv = "# roomNumber,style,price,smoking\n"
+                + "101,DELUXE,150.0,false\n"
+                + "102,DELUXE,120.0,true\n"
+                + "\n"
+                + "201,FAMILY_SUITE,300.0,false\n"
+                + "103,DELUXE,120.0,false\n";
+        assertEquals(4, new RoomInventoryLoader(hotel, 3).loadCsv(new StringReader(csv)));
+
+        assertEquals(List.of("101", "102", "201", "103"), numbers(hotel.getRooms()));
+        assertEquals(RoomStyle.FAMILY_SUITE, hotel.findRoomByNumber("201").getStyle());
+        assertTrue(hotel.findRoomByNumber("102").isSmoking());
+        long day = EpochDays.today() + 1;
+        // equal prices keep registration order, across batches
+        RoomQuery deluxe = new RoomQuery(day, 2).style(RoomStyle.DELUXE).sortBy(RoomQuery.SortOrder.PRICE_ASCENDING).page(0, 3);
+        assertEquals(List.of("102", "103", "101"), numbers(hotel.searchRooms(deluxe)));
+
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        BinaryCodec.Encoder encoder = BinaryCodec.newEncoder();
+        encoder.encode(new Room("301", RoomStyle.DELUXE, 90.0, false), buffer);
+        encoder.encode(new Room("302", RoomStyle.DELUXE, 95.0, false), buffer);
+        assertEquals(2, new RoomInventoryLoader(hotel).loadBinary(buffer.flip()));
+        assertEquals(6, hotel.getRoomCount());
+        assertEquals("301", hotel.searchRooms(new RoomQuery(day, 2).sortBy(RoomQuery.SortOrder.PRICE_ASCENDING).page(0, 1)).get(0).getRoomNumber());
+
+        String clash = "401,DELUXE,150.0,false\n101,DELUXE,150.0,false\n";
+        assertThrows(InvalidBookingException.class, () -> new RoomInventoryLoader(hotel).loadCsv(new StringReader(clash)));
+        assertNull(hotel.findRoomByNumber("401")); // the whole batch is refused
+        assertThrows(java.io.IOException.class, () -> new RoomInventoryLoader(hotel).loadCsv(new StringReader("501,DELUXE\n")));
+        java.io.IOException invalid = assertThrows(java.io.IOException.class,
+                () -> new RoomInventoryLoader(hotel).loadCsv(new StringReader("# header\n601,DELUXE,0,false\n")));
+        assertTrue(invalid.getMessage().contains("line 2"), invalid.getMessage());
+    }
+
+    private static List<String> numbers(List<Room> rooms) {
+        return rooms.stream().map(Room::getRoomNumber).collect(Collectors.toList());
+    }
+}
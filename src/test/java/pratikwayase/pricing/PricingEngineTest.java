@@ -0,0 +1,82 @@
+package pratikwayase.pricing;
+
+import org.junit.jupiter.api.*;
+import pratikwayase.enums.RoomStyle;
+import pratikwayase.factory.DeluxeRoomFactory;
+import pratikwayase.factory.FamilySuiteRoomFactory;
+import pratikwayase.model.*;
+import pratikwayase.util.EpochDays;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Pricing engine")
+class PricingEngineTest {
+    private Hotel hotel;
+    private long day;
+
+    @BeforeEach
+    void setUp() {
+        hotel = new Hotel("Pricing Hotel");
+        DeluxeRoomFactory deluxe = new DeluxeRoomFactory();
+        hotel.addRoom(deluxe.createRoom(RoomStyle.DELUXE, "101", 100.0, false));
+        hotel.addRoom(deluxe.createRoom(RoomStyle.DELUXE, "102", 120.0, false));
+        hotel.addRoom(new FamilySuiteRoomFactory().createRoom(RoomStyle.FAMILY_SUITE, "201", 300.0, false));
+        hotel.addUser(new Guest("G001", "Alice", "alice@example.com", "111"));
+        day = EpochDays.today() + 2;
+    }
+
+    @Test
+    @DisplayName("1. Stays are priced night by night from rates, list prices and surge")
+    void testNightlyPricing() {
+        PricingEngine engine = PricingEngine.attach(hotel, EpochDays.today(), 30);
+        engine.setRate(RoomStyle.DELUXE, day + 1, day + 3, 150.0);
+        List<Room> page = hotel.getRooms();
+
+        // night one at each room's list price, nights two and three at the deluxe rate
+        assertArrayEquals(new double[]{400.0, 420.0, 900.0}, engine.quote(page, day, 3), 1e-9);
+        assertEquals(420.0, engine.quote(hotel.findRoomByNumber("102"), day, 3), 1e-9);
+
+        engine.setSurgeTiers(new double[]{0.5, 1.0}, new double[]{1.2, 1.5});
+        RoomBooking first = hotel.createBooking("RES_1", "101", "G001", day + 1, 1);
+        assertEquals(150.0, first.getTotalPrice(), 1e-9); // priced before its own night was held
+        assertEquals(0.5, engine.getOccupancy(RoomStyle.DELUXE, day + 1), 1e-9);
+        assertEquals(120.0 + 180.0, hotel.createBooking("RES_2", "102", "G001", day, 2).getTotalPrice(), 1e-9);
+
+        hotel.cancelBooking(first);
+        assertEquals(0.5, engine.getOccupancy(RoomStyle.DELUXE, day + 1), 1e-9);
+        engine.clearRate(RoomStyle.DELUXE, day + 1, day + 3);
+        assertEquals(100.0 * 1.2 + 100.0 * 1.2 + 100.0, engine.quote(hotel.findRoomByNumber("101"), day, 3), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> engine.setRate(RoomStyle.DELUXE, day + 29, day + 40, 99.0));
+    }
+
+    @Test
+    @DisplayName("2. The window rolls forward with the clock, keeping rates and held nights")
+    void testRollingWindow() {
+        long today = EpochDays.today();
+        AtomicLong clock = new AtomicLong(today);
+        PricingEngine engine = PricingEngine.attach(hotel, new PricingEngine(today, 10, clock::get));
+        engine.setRate(RoomStyle.DELUXE, today + 5, today + 10, 150.0);
+        hotel.createBooking("RES_1", "101", "G001", today + 6, 1);
+        hotel.createBooking("RES_2", "102", "G001", today + 9, 4); // runs past the window
+        assertEquals(0, engine.getOccupancy(RoomStyle.DELUXE, today + 11), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> engine.setRate(RoomStyle.DELUXE, today + 12, today + 13, 99.0));
+
+        clock.set(today + 4);
+        assertEquals(150.0 + 100.0, engine.quote(hotel.findRoomByNumber("101"), today + 9, 2), 1e-9);
+        assertEquals(0.5, engine.getOccupancy(RoomStyle.DELUXE, today + 6), 1e-9);
+        assertEquals(0.5, engine.getOccupancy(RoomStyle.DELUXE, today + 11), 1e-9); // counted once in the window
+        assertEquals(0, engine.getOccupancy(RoomStyle.DELUXE, today + 3), 1e-9); // dropped off the front
+        engine.setRate(RoomStyle.DELUXE, today + 12, today + 13, 99.0);
+        assertEquals(99.0, engine.quote(hotel.findRoomByNumber("101"), today + 12, 1), 1e-9);
+
+        hotel.cancelBooking(hotel.findBookingByReservationNumber("RES_2"));
+        assertEquals(0, engine.getOccupancy(RoomStyle.DELUXE, today + 11), 1e-9);
+
+        clock.set(today + 30);
+        assertEquals(0, engine.getOccupancy(RoomStyle.DELUXE, today + 6), 1e-9);
+        assertEquals(100.0, engine.quote(hotel.findRoomByNumber("101"), today + 31, 1), 1e-9);
+    }
+}
@@ -0,0 +1,70 @@
+package pratikwayase.scheduling;
+
+import org.junit.jupiter.api.*;
+import pratikwayase.enums.BookingStatus;
+import pratikwayase.enums.RoomStyle;
+import pratikwayase.factory.DeluxeRoomFactory;
+import pratikwayase.model.*;
+import pratikwayase.util.EpochDays;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Hold expiry")
+class HoldExpiryTest {
+
+    @Test
+    @DisplayName("1. Timeouts fire once after their delay unless cancelled")
+    void testTimingWheel() throws Exception {
+        try (HashedTimingWheel wheel = new HashedTimingWheel(5, TimeUnit.MILLISECONDS, 8, "test-wheel")) {
+            AtomicInteger fired = new AtomicInteger();
+            CountDownLatch done = new CountDownLatch(1);
+            long started = System.nanoTime();
+            wheel.schedule(done::countDown, 100, TimeUnit.MILLISECONDS); // several turns of an 8-bucket wheel
+            HashedTimingWheel.Timeout cancelled = wheel.schedule(fired::incrementAndGet, 50, TimeUnit.MILLISECONDS);
+            assertTrue(cancelled.cancel());
+            assertFalse(cancelled.cancel());
+            assertEquals(1, wheel.getPendingCount());
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertTrue(System.nanoTime() - started >= TimeUnit.MILLISECONDS.toNanos(100));
+            assertEquals(0, fired.get());
+            assertEquals(0, wheel.getPendingCount());
+        }
+    }
+
+    @Test
+    @DisplayName("2. Unconfirmed holds are abandoned and release their nights, confirmed ones stay")
+    void testHoldExpiry() throws Exception {
+        Hotel hotel = new Hotel("Expiry Hotel");
+        DeluxeRoomFactory factory = new DeluxeRoomFactory();
+        hotel.addRoom(factory.createRoom(RoomStyle.DELUXE, "101", 150.0, false));
+        hotel.addRoom(factory.createRoom(RoomStyle.DELUXE, "102", 150.0, false));
+        hotel.addUser(new Guest("G001", "Alice", "alice@example.com", "111"));
+        long day = EpochDays.today() + 3;
+
+        try (HoldExpiry expiry = HoldExpiry.attach(hotel, Duration.ofMillis(100), Duration.ofMillis(10))) {
+            RoomBooking abandoned = hotel.createBooking("RES_1", "101", "G001", day, 2);
+            RoomBooking confirmed = hotel.createBooking("RES_2", "102", "G001", day, 2);
+            hotel.confirmBooking(confirmed);
+            assertEquals(1, expiry.getPendingHoldCount());
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            // the status flips before the nights and the reservation number are released
+            while ((abandoned.getStatus() == BookingStatus.PENDING || hotel.findBookingByReservationNumber("RES_1") != null)
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(BookingStatus.ABANDONED, abandoned.getStatus());
+            assertNull(hotel.findBookingByReservationNumber("RES_1"));
+            assertTrue(hotel.findRoomByNumber("101").isRoomAvailable(day, 2));
+            assertEquals(BookingStatus.CONFIRMED, confirmed.getStatus());
+            assertFalse(hotel.expireHold(confirmed));
+            assertEquals(0, expiry.getPendingHoldCount());
+        }
+    }
+}
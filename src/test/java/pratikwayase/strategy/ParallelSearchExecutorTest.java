@@ -0,0 +1,72 @@
+package pratikwayase.strategy;
+
+import org.junit.jupiter.api.*;
+import pratikwayase.enums.RoomStyle;
+import pratikwayase.factory.DeluxeRoomFactory;
+import pratikwayase.factory.FamilySuiteRoomFactory;
+import pratikwayase.model.*;
+import pratikwayase.util.EpochDays;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Parallel search")
+class ParallelSearchExecutorTest {
+    private static final int ROOMS = 200;
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final ParallelSearchExecutor executor = new ParallelSearchExecutor(pool, 16);
+    private final long day = EpochDays.today() + 3;
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    private Hotel newHotel(String name) {
+        Hotel hotel = new Hotel(name);
+        hotel.addUser(new Guest("G001", "Alice", "alice@example.com", "111"));
+        DeluxeRoomFactory deluxe = new DeluxeRoomFactory();
+        FamilySuiteRoomFactory suite = new FamilySuiteRoomFactory();
+        for (int i = 0; i < ROOMS; i++) {
+            String number = name + "-" + i;
+            hotel.addRoom(i % 2 == 0
+                    ? deluxe.createRoom(RoomStyle.DELUXE, number, 150.0, false)
+                    : suite.createRoom(RoomStyle.FAMILY_SUITE, number, 300.0, false));
+            if (i % 3 == 0) {
+                hotel.createBooking("RES-" + number, number, "G001", day, 2);
+            }
+        }
+        return hotel;
+    }
+
+    @Test
+    @DisplayName("1. Partitioned search matches the sequential result and order")
+    void testPartitionedSearch() {
+        Hotel hotel = newHotel("A");
+        List<Room> rooms = hotel.getRooms();
+        SearchStrategy strategy = new RoomStyleSearchStrategy();
+
+        List<Room> sequential = strategy.searchRooms(rooms, RoomStyle.DELUXE, day, 2);
+        assertEquals(sequential, executor.searchRooms(strategy, rooms, RoomStyle.DELUXE, day, 2, ParallelSearchExecutor.NO_LIMIT));
+        assertEquals(sequential.subList(0, 5), executor.searchRooms(strategy, rooms, RoomStyle.DELUXE, day, 2, 5));
+    }
+
+    @Test
+    @DisplayName("2. Cross-hotel search keeps hotel order and the overall limit")
+    void testHotelFanOut() {
+        Hotel first = newHotel("A");
+        Hotel second = newHotel("B");
+        SearchStrategy strategy = new RoomAvailabilitySearchStrategy();
+        int perHotel = first.searchRooms(strategy, null, day, 2).size();
+
+        Map<Hotel, List<Room>> all = executor.searchHotels(strategy, List.of(first, second), null, day, 2, ParallelSearchExecutor.NO_LIMIT);
+        assertEquals(List.of(first, second), new ArrayList<>(all.keySet()));
+        assertEquals(perHotel, all.get(second).size());
+
+        Map<Hotel, List<Room>> limited = executor.searchHotels(strategy, List.of(first, second), null, day, 2, perHotel + 3);
+        assertEquals(perHotel, limited.get(first).size());
+        assertEquals(3, limited.get(second).size());
+    }
+}